@@ -93,7 +93,7 @@ public class TreeTableDemo extends Application {
 			}
 
 			// build tree
-			final TreeItem<User> root = new RecursiveTreeItem<User>(users, RecursiveTreeObject::getChildren);
+			final TreeItem<User> root = new RecursiveTreeItem<User>(users, RecursiveTreeObject.childrenFactory());
 			
 			JFXTreeTableView<User> treeView = new JFXTreeTableView<User>(root, users);
 			treeView.setShowRoot(false);
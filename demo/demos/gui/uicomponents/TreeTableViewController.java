@@ -69,7 +69,7 @@ public class TreeTableViewController {
 		
 		ObservableList<Person> people = FXCollections.observableArrayList();
 		for (int i = 0; i < 100; i++) people.add(new Person(names[random.nextInt(names.length)], names[random.nextInt(names.length)], random.nextInt(100))); 
-		treeTableView.setRoot(new RecursiveTreeItem<Person>(people, RecursiveTreeObject::getChildren));
+		treeTableView.setRoot(new RecursiveTreeItem<Person>(people, RecursiveTreeObject.childrenFactory()));
 		treeTableView.setShowRoot(false);
 		treeTableViewCount.textProperty().bind(Bindings.createStringBinding(()-> "( " + treeTableView.getCurrentItemsCount()+" )", treeTableView.currentItemsCountProperty()));
 		searchField.textProperty().addListener((o,oldVal,newVal)->{
@@ -105,7 +105,7 @@ public class TreeTableViewController {
 		
 		ObservableList<Person> people2 = FXCollections.observableArrayList();
 		for (int i = 0; i < 200; i++) people2.add(new Person(names[random.nextInt(names.length)], names[random.nextInt(names.length)], random.nextInt(100))); 
-		editableTreeTableView.setRoot(new RecursiveTreeItem<Person>(people2, RecursiveTreeObject::getChildren));
+		editableTreeTableView.setRoot(new RecursiveTreeItem<Person>(people2, RecursiveTreeObject.childrenFactory()));
 		editableTreeTableView.setShowRoot(false);
 		editableTreeTableView.setEditable(true);
 		editableTreeTableViewCount.textProperty().bind(Bindings.createStringBinding(()-> "( " + editableTreeTableView.getCurrentItemsCount()+" )", editableTreeTableView.currentItemsCountProperty()));
@@ -19,6 +19,8 @@
 package com.jfoenix.concurrency;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javafx.application.Platform;
 
@@ -77,4 +79,23 @@ public class JFXUtilities {
 			Thread.currentThread().interrupt();
 		}
 	}
+
+	/**
+	 * This method is used to create a single thread executor for background work, 
+	 * the thread is a daemon thread and it stops when the executor is idle.
+	 * 
+	 * @param name the name of the executor thread
+	 * @return the executor
+	 */
+	public static ScheduledThreadPoolExecutor createDaemonExecutor(String name) {
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, name);
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setKeepAliveTime(1, TimeUnit.SECONDS);
+		executor.allowCoreThreadTimeOut(true);
+		executor.setRemoveOnCancelPolicy(true);
+		return executor;
+	}
 }
@@ -0,0 +1,598 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.jfoenix.controls.JFXTreeTableColumn.AggregateType;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * GroupTree holds the groups of {@link JFXTreeTableView} items for an ordered
+ * list of columns. Each node is identified by the tuple of column values on its
+ * path from the root, and the items of every node are stored as one contiguous
+ * range of {@link #order}, an index array into the grouped items.
+ * <p>
+ * Once the table has created the group tree items, the tree is kept up to date
+ * by moving single items between leaf groups, the ranges then only describe 
+ * the groups as they were built.
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+final class GroupTree<S> {
+
+	/*
+	 * minimum number of items in a chunk before splitting it when grouping in parallel
+	 */
+	private static final int PARALLEL_GROUPING_THRESHOLD = 8192;
+
+	final List<TreeItem<S>> items;
+	final List<TreeTableColumn<S, ?>> columns;
+	/*
+	 * columns that show an aggregate on the group rows
+	 */
+	final List<JFXTreeTableColumn<S, ?>> aggregateColumns;
+	final Node root;
+	/*
+	 * indices of the grouped items ordered by group, each node owns order[start, end)
+	 */
+	final int[] order;
+	/*
+	 * the leaf group of every grouped item
+	 */
+	final Map<TreeItem<S>, Node> leafGroups = new IdentityHashMap<>();
+	/*
+	 * the group node shown by every group tree item
+	 */
+	final Map<TreeItem<?>, Node> groupItems = new IdentityHashMap<>();
+
+	private GroupTree(List<TreeItem<S>> items, List<TreeTableColumn<S, ?>> columns, List<JFXTreeTableColumn<S, ?>> aggregateColumns, Node root) {
+		this.items = items;
+		this.columns = columns;
+		this.aggregateColumns = aggregateColumns;
+		this.root = root;
+		this.order = new int[root.size];
+		layout(root, null, 0);
+		if(!aggregateColumns.isEmpty()) computeAggregates(root);
+	}
+
+	/**
+	 * groups the items by the values of the specified columns
+	 *
+	 * @param items to be grouped
+	 * @param columns grouping columns, the first column is the top level group
+	 * @param aggregateColumns columns that show an aggregate on the group rows
+	 * @param parallel whether or not the items are split into chunks that are grouped on the common {@link ForkJoinPool}
+	 * @return the group tree
+	 */
+	static <S> GroupTree<S> build(List<TreeItem<S>> items, List<TreeTableColumn<S, ?>> columns, List<JFXTreeTableColumn<S, ?>> aggregateColumns, boolean parallel){
+		Node root = parallel && items.size() > PARALLEL_GROUPING_THRESHOLD ?
+				ForkJoinPool.commonPool().invoke(new BucketTask<>(items, columns, 0, items.size())) : bucket(items, columns, 0, items.size());
+		return new GroupTree<>(items, columns, aggregateColumns, root);
+	}
+
+	/**
+	 * groups the items through a grouping function, called once per group and column
+	 *
+	 * @param items to be grouped
+	 * @param columns grouping columns, the first column is the top level group
+	 * @param aggregateColumns columns that show an aggregate on the group rows
+	 * @param grouping splits the items of a group by the values of a column
+	 * @return the group tree
+	 */
+	static <S> GroupTree<S> build(List<TreeItem<S>> items, List<TreeTableColumn<S, ?>> columns, List<JFXTreeTableColumn<S, ?>> aggregateColumns, Grouping<S> grouping){
+		Map<TreeItem<S>, Integer> indices = new IdentityHashMap<>(items.size());
+		for (int i = 0; i < items.size(); i++) indices.put(items.get(i), i);
+		Node root = new Node(null, 0, columns.isEmpty());
+		group(root, items, columns, grouping, indices);
+		return new GroupTree<>(items, columns, aggregateColumns, root);
+	}
+
+	/**
+	 * splits the items of a group by the values of a column
+	 */
+	interface Grouping<S> {
+		Map<?, ? extends List<TreeItem<S>>> group(List<TreeItem<S>> items, TreeTableColumn<S, ?> column);
+	}
+
+	/**
+	 * @param column grouping column
+	 * @param item tree item
+	 * @return the grouping key of the item, read through the column key extractors when specified
+	 */
+	static <S> Object getKey(TreeTableColumn<S, ?> column, TreeItem<S> item){
+		if(column instanceof JFXTreeTableColumn)
+			return ((JFXTreeTableColumn<S, ?>) column).getCellKey(item);
+		return column.getCellData(item);
+	}
+
+	/**
+	 * @param node group node
+	 * @return the grouping column of the node, null for the root
+	 */
+	TreeTableColumn<S, ?> getColumn(Node node){
+		return node.depth == 0 ? null : columns.get(node.depth - 1);
+	}
+
+	/**
+	 * @param node group node
+	 * @return the items of the group, in their original order
+	 */
+	List<TreeItem<S>> getItems(Node node){
+		List<TreeItem<S>> groupItems = new ArrayList<>(node.size());
+		for (int i = node.start; i < node.end; i++)
+			groupItems.add(items.get(order[i]));
+		return groupItems;
+	}
+
+	/**
+	 * creates a new child group
+	 * 
+	 * @param parent group node
+	 * @param value of the grouping column
+	 * @return the new group node
+	 */
+	Node addGroup(Node parent, Object value){
+		Node child = new Node(value, parent.depth + 1, parent.depth + 1 == columns.size());
+		child.parent = parent;
+		child.aggregates = createAggregates();
+		parent.children.put(value, child);
+		return child;
+	}
+
+	/**
+	 * removes an empty group node from its parent
+	 * 
+	 * @param node group node
+	 */
+	void removeGroup(Node node){
+		node.parent.children.remove(node.value);
+		groupItems.remove(node.treeItem);
+	}
+
+	/**
+	 * @param group tree item of a group row
+	 * @param column aggregated column
+	 * @return the aggregate value of the column for the group, null if it's not aggregated
+	 */
+	ReadOnlyObjectProperty<Number> getAggregateValue(TreeItem<?> group, JFXTreeTableColumn<S, ?> column){
+		Node node = groupItems.get(group);
+		int index = aggregateColumns.indexOf(column);
+		if(node == null || index == -1) return null;
+		return node.aggregates[index].value.getReadOnlyProperty();
+	}
+
+	/**
+	 * adds an item to the aggregates of its leaf group and all its parents,
+	 * the aggregate values are updated by {@link #publishAggregates(Node)}
+	 * 
+	 * @param leaf group of the item
+	 * @param item the added item
+	 */
+	void addToAggregates(Node leaf, TreeItem<S> item){
+		for (int i = 0; i < aggregateColumns.size(); i++) {
+			double value = aggregateColumns.get(i).getAggregatedValue(item);
+			for (Node node = leaf; node != null; node = node.parent)
+				node.aggregates[i].add(value);
+		}
+	}
+
+	/**
+	 * removes an item from the aggregates of its leaf group and all its parents,
+	 * the aggregates that lost their min / max are only marked stale, they are
+	 * recomputed once by {@link #publishAggregates(Node)}
+	 * 
+	 * @param leaf group of the item
+	 * @param item the removed item
+	 */
+	void removeFromAggregates(Node leaf, TreeItem<S> item){
+		for (int i = 0; i < aggregateColumns.size(); i++) {
+			double value = aggregateColumns.get(i).getAggregatedValue(item);
+			for (Node node = leaf; node != null; node = node.parent)
+				if(!node.aggregates[i].remove(value)) node.aggregates[i].stale = true;
+		}
+	}
+
+	/**
+	 * updates the aggregate values of a group and all its parents, the stale aggregates
+	 * are recomputed from the group rows, so the removed items must be already removed 
+	 * from the leaf group tree item
+	 * 
+	 * @param leaf group node
+	 */
+	void publishAggregates(Node leaf){
+		// bottom up, the parents are recomputed from their (up to date) children
+		for (Node node = leaf; node != null; node = node.parent){
+			for (int i = 0; i < node.aggregates.length; i++) {
+				if(node.aggregates[i].stale) recomputeAggregate(node, i);
+				node.aggregates[i].publish();
+			}
+		}
+	}
+
+	private Aggregate[] createAggregates(){
+		Aggregate[] aggregates = new Aggregate[aggregateColumns.size()];
+		for (int i = 0; i < aggregates.length; i++)
+			aggregates[i] = new Aggregate(aggregateColumns.get(i).getAggregate());
+		return aggregates;
+	}
+
+	private void computeAggregates(Node node){
+		node.aggregates = createAggregates();
+		if(node.isLeaf()){
+			for (int i = 0; i < aggregateColumns.size(); i++) {
+				JFXTreeTableColumn<S, ?> column = aggregateColumns.get(i);
+				for (int j = node.start; j < node.end; j++)
+					node.aggregates[i].add(column.getAggregatedValue(items.get(order[j])));
+			}
+		}else{
+			for (Node child : node.children.values()) {
+				computeAggregates(child);
+				for (int i = 0; i < node.aggregates.length; i++)
+					node.aggregates[i].merge(child.aggregates[i]);
+			}
+		}
+		for (Aggregate aggregate : node.aggregates) aggregate.publish();
+	}
+
+	private void recomputeAggregate(Node node, int index){
+		Aggregate aggregate = node.aggregates[index];
+		aggregate.reset();
+		aggregate.stale = false;
+		if(node.isLeaf()){
+			JFXTreeTableColumn<S, ?> column = aggregateColumns.get(index);
+			for (TreeItem<?> item : node.treeItem.originalItems)
+				aggregate.add(column.getAggregatedValue((TreeItem<S>) item));
+		}else{
+			for (Node child : node.children.values())
+				aggregate.merge(child.aggregates[index]);
+		}
+	}
+
+	/*
+	 * assigns the ranges of all nodes and fills the order array, releasing the building buffers
+	 */
+	private int layout(Node node, Node parent, int start){
+		node.parent = parent;
+		node.start = start;
+		if(node.children == null){
+			if(node.size > 0) System.arraycopy(node.indices, 0, order, start, node.size);
+			node.indices = null;
+			node.end = start + node.size;
+		}else{
+			node.primitiveKeys = null;
+			node.primitiveChildren = null;
+			int end = start;
+			for (Node child : node.children.values())
+				end = layout(child, node, end);
+			node.end = end;
+		}
+		return node.end;
+	}
+
+	/*
+	 * buckets a range of items walking down the tree once per item
+	 */
+	private static <S> Node bucket(List<TreeItem<S>> items, List<TreeTableColumn<S, ?>> columns, int from, int to){
+		final int depth = columns.size();
+		// the int and long keys of the data rows are read without boxing
+		final ToIntFunction<S>[] intKeys = new ToIntFunction[depth];
+		final ToLongFunction<S>[] longKeys = new ToLongFunction[depth];
+		for (int d = 0; d < depth; d++) {
+			if(!(columns.get(d) instanceof JFXTreeTableColumn)) continue;
+			JFXTreeTableColumn<S, ?> column = (JFXTreeTableColumn<S, ?>) columns.get(d);
+			intKeys[d] = column.getIntKeyExtractor();
+			if(intKeys[d] == null) longKeys[d] = column.getLongKeyExtractor();
+		}
+		Node root = new Node(null, 0, depth == 0);
+		for (int i = from; i < to; i++) {
+			TreeItem<S> item = items.get(i);
+			S rowObject = item.getValue();
+			boolean dataRow = rowObject != null && !RecursiveTreeObject.isGroupRow(rowObject);
+			Node node = root;
+			while(node.children != null){
+				final int d = node.depth;
+				Node child;
+				if(dataRow && intKeys[d] != null){
+					child = node.primitiveChild(intKeys[d].applyAsInt(rowObject), true, depth);
+				}else if(dataRow && longKeys[d] != null){
+					child = node.primitiveChild(longKeys[d].applyAsLong(rowObject), false, depth);
+				}else{
+					Object value = getKey(columns.get(d), item);
+					child = node.children.get(value);
+					if(child == null){
+						child = new Node(value, d + 1, d + 1 == depth);
+						node.children.put(value, child);
+					}
+				}
+				node.size++;
+				node = child;
+			}
+			node.add(i);
+		}
+		return root;
+	}
+
+	/*
+	 * groups the items of a node recursively through the grouping function
+	 */
+	private static <S> void group(Node node, List<TreeItem<S>> nodeItems, List<TreeTableColumn<S, ?>> columns, Grouping<S> grouping, Map<TreeItem<S>, Integer> indices){
+		if(node.children == null){
+			for (TreeItem<S> item : nodeItems) {
+				Integer index = indices.get(item);
+				if(index != null) node.add(index);
+			}
+			return;
+		}
+		for (Map.Entry<?, ? extends List<TreeItem<S>>> entry : grouping.group(nodeItems, columns.get(node.depth)).entrySet()) {
+			Node child = new Node(entry.getKey(), node.depth + 1, node.depth + 1 == columns.size());
+			node.children.put(entry.getKey(), child);
+			group(child, entry.getValue(), columns, grouping, indices);
+			node.size += child.size;
+		}
+	}
+
+	private static class BucketTask<S> extends RecursiveTask<Node> {
+		private static final long serialVersionUID = 1L;
+		private final List<TreeItem<S>> items;
+		private final List<TreeTableColumn<S, ?>> columns;
+		private final int from, to;
+
+		BucketTask(List<TreeItem<S>> items, List<TreeTableColumn<S, ?>> columns, int from, int to) {
+			this.items = items;
+			this.columns = columns;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Node compute() {
+			if(to - from <= PARALLEL_GROUPING_THRESHOLD)
+				return bucket(items, columns, from, to);
+			int middle = (from + to) >>> 1;
+			BucketTask<S> right = new BucketTask<>(items, columns, middle, to);
+			right.fork();
+			Node left = new BucketTask<>(items, columns, from, middle).compute();
+			left.merge(right.join());
+			return left;
+		}
+	}
+
+	/**
+	 * group node, identified by the column values on its path from the root
+	 */
+	static final class Node {
+		Node parent;
+		final Object value;
+		final int depth;
+		/*
+		 * child groups by column value, in the order of their first item (null for leaf groups)
+		 */
+		Map<Object, Node> children;
+		/*
+		 * range of the node items in the order array
+		 */
+		int start, end;
+		/*
+		 * building buffer, item indices of leaf groups
+		 */
+		private int[] indices;
+		private int size;
+		/*
+		 * building buffer, open addressing table of the children by int or long key,
+		 * so the key of a child group is boxed once instead of once per item
+		 */
+		private long[] primitiveKeys;
+		private Node[] primitiveChildren;
+		private int primitiveCount;
+		/*
+		 * the tree item that shows this group in the table
+		 */
+		RecursiveTreeItem<?> treeItem;
+		/*
+		 * aggregates of the group rows, one per aggregated column
+		 */
+		Aggregate[] aggregates = new Aggregate[0];
+
+		private Node(Object value, int depth, boolean leaf) {
+			this.value = value;
+			this.depth = depth;
+			if(!leaf) children = new LinkedHashMap<>();
+		}
+
+		/**
+		 * @return the composite key of the group, i.e. the column values from the top level down to this node
+		 */
+		Object[] getKey(){
+			Object[] key = new Object[depth];
+			for (Node node = this; node.depth > 0; node = node.parent)
+				key[node.depth - 1] = node.value;
+			return key;
+		}
+
+		boolean isLeaf(){
+			return children == null;
+		}
+
+		int size(){
+			return end - start;
+		}
+
+		/*
+		 * returns the child group of a primitive key, it's created if missing
+		 */
+		private Node primitiveChild(long key, boolean intKey, int treeDepth){
+			if(primitiveKeys == null){
+				primitiveKeys = new long[16];
+				primitiveChildren = new Node[16];
+			}
+			int slot = slot(primitiveKeys, primitiveChildren, key);
+			if(primitiveChildren[slot] != null) return primitiveChildren[slot];
+			// the casts keep the int keys from being promoted to long
+			Object value = intKey ? (Object) Integer.valueOf((int) key) : (Object) Long.valueOf(key);
+			// the group may already exist for a row keyed through its cell data
+			Node child = children.get(value);
+			if(child == null){
+				child = new Node(value, depth + 1, depth + 1 == treeDepth);
+				children.put(value, child);
+			}
+			primitiveKeys[slot] = key;
+			primitiveChildren[slot] = child;
+			// keep the table at most half full
+			if(++primitiveCount * 2 > primitiveKeys.length){
+				long[] keys = new long[primitiveKeys.length << 1];
+				Node[] nodes = new Node[keys.length];
+				for (int i = 0; i < primitiveKeys.length; i++) {
+					if(primitiveChildren[i] == null) continue;
+					int newSlot = slot(keys, nodes, primitiveKeys[i]);
+					keys[newSlot] = primitiveKeys[i];
+					nodes[newSlot] = primitiveChildren[i];
+				}
+				primitiveKeys = keys;
+				primitiveChildren = nodes;
+			}
+			return child;
+		}
+
+		/*
+		 * the slot of the key, or the empty slot where it's inserted
+		 */
+		private static int slot(long[] keys, Node[] nodes, long key){
+			int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+			int mask = keys.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while(nodes[slot] != null && keys[slot] != key) slot = (slot + 1) & mask;
+			return slot;
+		}
+
+		private void add(int index){
+			if(indices == null) indices = new int[4];
+			else if(size == indices.length) indices = Arrays.copyOf(indices, size << 1);
+			indices[size++] = index;
+		}
+
+		/*
+		 * merges the groups of the following chunk into this node
+		 */
+		private void merge(Node other){
+			if(children == null){
+				int[] merged = Arrays.copyOf(indices, size + other.size);
+				System.arraycopy(other.indices, 0, merged, size, other.size);
+				indices = merged;
+			}else{
+				for (Map.Entry<Object, Node> entry : other.children.entrySet()) {
+					Node child = children.get(entry.getKey());
+					if(child == null) children.put(entry.getKey(), entry.getValue());
+					else child.merge(entry.getValue());
+				}
+			}
+			size += other.size;
+		}
+	}
+
+	/**
+	 * primitive accumulator of a group aggregate, values are added and removed 
+	 * as rows enter or leave the group
+	 */
+	static final class Aggregate {
+		private final AggregateType type;
+		private long count, valueCount;
+		private double sum;
+		private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+		private final ReadOnlyObjectWrapper<Number> value = new ReadOnlyObjectWrapper<>();
+		/*
+		 * set when the removed min / max must be recomputed from the group rows
+		 */
+		boolean stale = false;
+
+		Aggregate(AggregateType type) {
+			this.type = type;
+		}
+
+		/**
+		 * @param rowValue numeric value of the row, NaN if not a number
+		 */
+		void add(double rowValue){
+			count++;
+			if(Double.isNaN(rowValue)) return;
+			valueCount++;
+			sum += rowValue;
+			if(rowValue < min) min = rowValue;
+			if(rowValue > max) max = rowValue;
+		}
+
+		/**
+		 * @param rowValue numeric value of the row, NaN if not a number
+		 * @return false if the removed value was the min / max of the group,
+		 * the aggregate must then be recomputed
+		 */
+		boolean remove(double rowValue){
+			count--;
+			if(Double.isNaN(rowValue)) return true;
+			valueCount--;
+			sum -= rowValue;
+			if(valueCount == 0){
+				min = Double.POSITIVE_INFINITY;
+				max = Double.NEGATIVE_INFINITY;
+				return true;
+			}
+			return !((type == AggregateType.MIN && rowValue <= min) || (type == AggregateType.MAX && rowValue >= max));
+		}
+
+		void merge(Aggregate other){
+			count += other.count;
+			valueCount += other.valueCount;
+			sum += other.sum;
+			if(other.min < min) min = other.min;
+			if(other.max > max) max = other.max;
+		}
+
+		void reset(){
+			count = valueCount = 0;
+			sum = 0;
+			min = Double.POSITIVE_INFINITY;
+			max = Double.NEGATIVE_INFINITY;
+		}
+
+		void publish(){
+			switch (type) {
+			case COUNT: value.set(count); break;
+			case SUM: value.set(sum); break;
+			case MIN: value.set(valueCount == 0 ? null : min); break;
+			case MAX: value.set(valueCount == 0 ? null : max); break;
+			case AVG: value.set(valueCount == 0 ? null : sum / valueCount); break;
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * IndexSort is a stable merge sort of int index arrays, the indices are compared
+ * through an {@link IndexComparator} that reads the keys from arrays, so neither the
+ * indices nor the keys are boxed. large arrays are sorted in parallel on the
+ * common {@link ForkJoinPool}.
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+final class IndexSort {
+
+	/*
+	 * minimum number of indices in a range before sorting its halves in parallel
+	 */
+	private static final int PARALLEL_THRESHOLD = 8192;
+	/*
+	 * ranges smaller than this are insertion sorted
+	 */
+	private static final int INSERTION_THRESHOLD = 16;
+
+	/**
+	 * compares two indices, usually by the keys stored at these indices
+	 */
+	interface IndexComparator {
+		int compare(int a, int b);
+	}
+
+	private IndexSort() {
+	}
+
+	/**
+	 * @param size number of indices
+	 * @param comparator of the indices
+	 * @return the indices 0 to size - 1 in sorted order, equal indices keep their order
+	 */
+	static int[] sort(int size, IndexComparator comparator){
+		int[] indices = new int[size];
+		for (int i = 0; i < size; i++) indices[i] = i;
+		int[] buffer = indices.clone();
+		if(size > PARALLEL_THRESHOLD) ForkJoinPool.commonPool().invoke(new SortTask(buffer, indices, 0, size, comparator));
+		else mergeSort(buffer, indices, 0, size, comparator);
+		return indices;
+	}
+
+	/*
+	 * sorts the range into dst, src holds the same indices as dst and is used as buffer
+	 */
+	private static void mergeSort(int[] src, int[] dst, int from, int to, IndexComparator comparator){
+		if(to - from < INSERTION_THRESHOLD){
+			insertionSort(dst, from, to, comparator);
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(dst, src, from, middle, comparator);
+		mergeSort(dst, src, middle, to, comparator);
+		merge(src, dst, from, middle, to, comparator);
+	}
+
+	private static void insertionSort(int[] indices, int from, int to, IndexComparator comparator){
+		for (int i = from + 1; i < to; i++) {
+			int index = indices[i];
+			int j = i;
+			for (; j > from && comparator.compare(indices[j - 1], index) > 0; j--) indices[j] = indices[j - 1];
+			indices[j] = index;
+		}
+	}
+
+	/*
+	 * merges the sorted halves of src into dst
+	 */
+	private static void merge(int[] src, int[] dst, int from, int middle, int to, IndexComparator comparator){
+		// the halves are already in order
+		if(comparator.compare(src[middle - 1], src[middle]) <= 0){
+			System.arraycopy(src, from, dst, from, to - from);
+			return;
+		}
+		for (int i = from, left = from, right = middle; i < to; i++) {
+			if(right >= to || (left < middle && comparator.compare(src[left], src[right]) <= 0)) dst[i] = src[left++];
+			else dst[i] = src[right++];
+		}
+	}
+
+	private static class SortTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int[] src, dst;
+		private final int from, to;
+		private final IndexComparator comparator;
+
+		SortTask(int[] src, int[] dst, int from, int to, IndexComparator comparator) {
+			this.src = src;
+			this.dst = dst;
+			this.from = from;
+			this.to = to;
+			this.comparator = comparator;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= PARALLEL_THRESHOLD){
+				mergeSort(src, dst, from, to, comparator);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new SortTask(dst, src, from, middle, comparator), new SortTask(dst, src, middle, to, comparator));
+			merge(src, dst, from, middle, to, comparator);
+		}
+	}
+}
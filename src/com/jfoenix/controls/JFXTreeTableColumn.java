@@ -21,12 +21,23 @@ package com.jfoenix.controls;
 import com.jfoenix.controls.cells.editors.base.JFXTreeTableCell;
 import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.Node;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
+import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeTableCell;
 import javafx.scene.control.TreeTableColumn;
 import javafx.util.Callback;
@@ -56,27 +67,15 @@ public class JFXTreeTableColumn<S, T> extends TreeTableColumn<S, T> {
 	}
 
 	private void init(){
-		this.setCellFactory(new Callback<TreeTableColumn<S,T>, TreeTableCell<S,T>>() {
-			@Override
-			public TreeTableCell<S, T> call(TreeTableColumn<S, T> param) {
-				return new JFXTreeTableCell<S, T>(){
-					@Override protected void updateItem(T item, boolean empty) {
-						if (item == getItem()) return;
-						super.updateItem(item, empty);
-						if (item == null) {
-							super.setText(null);
-							super.setGraphic(null);
-						} else if (item instanceof Node) {
-							super.setText(null);
-							super.setGraphic((Node)item);
-						} else {
-							super.setText(item.toString());
-							super.setGraphic(null);
-						}
-					}
-				};
-			}
-		});
+		this.setCellFactory(defaultCellFactory());
+
+		// the shown cells are recreated, so they are formatted again
+		InvalidationListener formatListener = (o)-> {
+			formattedTexts.clear();
+			if(getTreeTableView() != null) getTreeTableView().refresh();
+		};
+		formatter.addListener(formatListener);
+		locale.addListener(formatListener);
 
 		Platform.runLater(()->{
 			final ContextMenu contextMenu = new ContextMenu();
@@ -97,6 +96,45 @@ public class JFXTreeTableColumn<S, T> extends TreeTableColumn<S, T> {
 		});
 	}
 
+	/*
+	 * the default cell factory is shared by all columns, so the cells can be 
+	 * recycled between columns when the table columns are virtualized
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final Callback DEFAULT_CELL_FACTORY = new Callback<TreeTableColumn, TreeTableCell>() {
+		@Override
+		public TreeTableCell call(TreeTableColumn param) {
+			return new DefaultTreeTableCell();
+		}
+	};
+
+	@SuppressWarnings("unchecked")
+	private static <S, T> Callback<TreeTableColumn<S, T>, TreeTableCell<S, T>> defaultCellFactory(){
+		return DEFAULT_CELL_FACTORY;
+	}
+
+	private static class DefaultTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
+		@Override protected void updateItem(T item, boolean empty) {
+			// the text of the same value is already shown
+			if (item == getItem() && empty == isEmpty()) return;
+			super.updateItem(item, empty);
+			if (item == null) {
+				super.setText(null);
+				super.setGraphic(null);
+			} else if (item instanceof Node) {
+				super.setText(null);
+				super.setGraphic((Node)item);
+			} else {
+				// group rows may show aggregates, they are not formatted
+				TreeItem<S> row = getTreeTableRow() == null ? null : getTreeTableRow().getTreeItem();
+				boolean groupRow = row != null && RecursiveTreeObject.isGroupRow(row.getValue());
+				boolean formatted = !groupRow && getTableColumn() instanceof JFXTreeTableColumn;
+				super.setText(formatted ? ((JFXTreeTableColumn<S, T>) getTableColumn()).getFormattedText(item) : item.toString());
+				super.setGraphic(null);
+			}
+		}
+	}
+
 	/**
 	 * validates the value of the tree item
 	 * @param param tree item
@@ -104,7 +142,9 @@ public class JFXTreeTableColumn<S, T> extends TreeTableColumn<S, T> {
 	 */
 	public final boolean validateValue(CellDataFeatures<S, T> param){
 		Object rowObject = param.getValue().getValue();
-		if((rowObject instanceof RecursiveTreeObject && rowObject.getClass() == RecursiveTreeObject.class)
+		// rows of paged items that are not loaded yet
+		if(rowObject == null) return false;
+		if(RecursiveTreeObject.isGroupRow(rowObject)
 				|| (param.getTreeTableView() instanceof JFXTreeTableView && ((JFXTreeTableView<?>)param.getTreeTableView()).getGroupOrder().contains(this)))
 			return false;
 		return true;
@@ -112,7 +152,8 @@ public class JFXTreeTableColumn<S, T> extends TreeTableColumn<S, T> {
 
 	/**
 	 * @param param tree item
-	 * @return the data represented by the tree item
+	 * @return the data represented by the tree item, for group rows it's either the grouped value 
+	 * or the aggregate of the column over the group rows
 	 */
 	public final ObservableValue<T> getComputedValue(CellDataFeatures<S, T> param){
 		Object rowObject = param.getValue().getValue();
@@ -120,10 +161,193 @@ public class JFXTreeTableColumn<S, T> extends TreeTableColumn<S, T> {
 			RecursiveTreeObject<?> item = (RecursiveTreeObject<?>) rowObject;
 			if(item.getGroupedColumn() == this)
 				return new ReadOnlyObjectWrapper(item.getGroupedValue());
+			if(getAggregate() != null && param.getTreeTableView() instanceof JFXTreeTableView)
+				return (ObservableValue<T>) ((JFXTreeTableView<?>) param.getTreeTableView()).getAggregateValue(param.getValue(), this);
 		}
 		return null;
 	}
 
+	/**
+	 * formatter used by the default cells to show the column values, the formatted texts are 
+	 * cached by value (weakly, up to {@value #FORMATTED_TEXTS_CACHE_SIZE} values) so the same 
+	 * value isn't formatted again while scrolling. the formatter should use {@link #getLocale()}, 
+	 * the shown cells are refreshed when either of them changes
+	 */
+	private ObjectProperty<Function<T, String>> formatter = new SimpleObjectProperty<>();
+
+	public final ObjectProperty<Function<T, String>> formatterProperty() {
+		return this.formatter;
+	}
+
+	public final Function<T, String> getFormatter() {
+		return this.formatterProperty().get();
+	}
+
+	public final void setFormatter(final Function<T, String> formatter) {
+		this.formatterProperty().set(formatter);
+	}
+
+	/**
+	 * the locale of the formatter, the cached texts are cleared and the shown 
+	 * cells are refreshed when it changes
+	 */
+	private ObjectProperty<Locale> locale = new SimpleObjectProperty<>(Locale.getDefault(Locale.Category.FORMAT));
+
+	public final ObjectProperty<Locale> localeProperty() {
+		return this.locale;
+	}
+
+	public final Locale getLocale() {
+		return this.localeProperty().get();
+	}
+
+	public final void setLocale(final Locale locale) {
+		this.localeProperty().set(locale);
+	}
+
+	private static final int FORMATTED_TEXTS_CACHE_SIZE = 4096;
+	private final Map<Object, String> formattedTexts = new WeakHashMap<>();
+
+	/**
+	 * @param value the column value
+	 * @return the text shown for the value, formatted using the formatter if specified
+	 */
+	public final String getFormattedText(T value){
+		if(value == null) return null;
+		Function<T, String> currentFormatter = getFormatter();
+		if(currentFormatter == null) return value.toString();
+		String text = formattedTexts.get(value);
+		if(text == null){
+			// the cache is bounded, it starts over once full
+			if(formattedTexts.size() >= FORMATTED_TEXTS_CACHE_SIZE) formattedTexts.clear();
+			text = currentFormatter.apply(value);
+			formattedTexts.put(value, text);
+		}
+		return text;
+	}
+
+	/**
+	 * aggregate functions that can be shown on group rows
+	 */
+	public enum AggregateType {
+		COUNT, SUM, MIN, MAX, AVG
+	}
+
+	/**
+	 * the aggregate shown on group rows for this column, it's computed while grouping 
+	 * and updated as rows enter or leave the group. except for COUNT, it is computed 
+	 * over the numeric values of the column read through the key extractors (or the 
+	 * cell data if there is none).
+	 */
+	private ObjectProperty<AggregateType> aggregate = new SimpleObjectProperty<>();
+
+	public final ObjectProperty<AggregateType> aggregateProperty() {
+		return this.aggregate;
+	}
+
+	public final AggregateType getAggregate() {
+		return this.aggregateProperty().get();
+	}
+
+	public final void setAggregate(final AggregateType aggregate) {
+		this.aggregateProperty().set(aggregate);
+	}
+
+	/**
+	 * @param item tree item
+	 * @return the numeric value of the column used for aggregates, NaN if the value is not a number
+	 */
+	final double getAggregatedValue(TreeItem<S> item){
+		S rowObject = item.getValue();
+		if(rowObject != null && !RecursiveTreeObject.isGroupRow(rowObject)){
+			if(getIntKeyExtractor() != null) return getIntKeyExtractor().applyAsInt(rowObject);
+			if(getLongKeyExtractor() != null) return getLongKeyExtractor().applyAsLong(rowObject);
+		}
+		Object value = getCellKey(item);
+		return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+	}
+
+	/**
+	 * optional function that reads the value of the column directly from the row object,
+	 * if specified it's used instead of the cell value factory when grouping and sorting,
+	 * so no observable value is created per row 
+	 */
+	private ObjectProperty<Function<S, T>> keyExtractor = new SimpleObjectProperty<>();
+
+	public final ObjectProperty<Function<S, T>> keyExtractorProperty() {
+		return this.keyExtractor;
+	}
+
+	public final Function<S, T> getKeyExtractor() {
+		return this.keyExtractorProperty().get();
+	}
+
+	public final void setKeyExtractor(final Function<S, T> keyExtractor) {
+		this.keyExtractorProperty().set(keyExtractor);
+	}
+
+	/**
+	 * optional int variant of the {@link #keyExtractorProperty() key extractor}, 
+	 * rows are sorted by comparing the int values
+	 */
+	private ObjectProperty<ToIntFunction<S>> intKeyExtractor = new SimpleObjectProperty<>();
+
+	public final ObjectProperty<ToIntFunction<S>> intKeyExtractorProperty() {
+		return this.intKeyExtractor;
+	}
+
+	public final ToIntFunction<S> getIntKeyExtractor() {
+		return this.intKeyExtractorProperty().get();
+	}
+
+	public final void setIntKeyExtractor(final ToIntFunction<S> intKeyExtractor) {
+		this.intKeyExtractorProperty().set(intKeyExtractor);
+	}
+
+	/**
+	 * optional long variant of the {@link #keyExtractorProperty() key extractor}, 
+	 * rows are sorted by comparing the long values
+	 */
+	private ObjectProperty<ToLongFunction<S>> longKeyExtractor = new SimpleObjectProperty<>();
+
+	public final ObjectProperty<ToLongFunction<S>> longKeyExtractorProperty() {
+		return this.longKeyExtractor;
+	}
+
+	public final ToLongFunction<S> getLongKeyExtractor() {
+		return this.longKeyExtractorProperty().get();
+	}
+
+	public final void setLongKeyExtractor(final ToLongFunction<S> longKeyExtractor) {
+		this.longKeyExtractorProperty().set(longKeyExtractor);
+	}
+
+	/**
+	 * @return true if one of the key extractors is specified
+	 */
+	public final boolean hasKeyExtractor(){
+		return getIntKeyExtractor() != null || getLongKeyExtractor() != null || getKeyExtractor() != null;
+	}
+
+	/**
+	 * returns the value of the column for a tree item, using the key extractors if specified.
+	 * it can be used in predicates to filter the table without going through the cell value factory.
+	 * the int and long keys are boxed, grouping and sorting read them through the primitive
+	 * key extractors instead.
+	 * 
+	 * @param item tree item
+	 * @return the key extractor result, or the cell data for group rows and when no extractor is specified
+	 */
+	public final Object getCellKey(TreeItem<S> item){
+		S rowObject = item.getValue();
+		if(rowObject == null || RecursiveTreeObject.isGroupRow(rowObject))
+			return getCellData(item);
+		if(getIntKeyExtractor() != null) return getIntKeyExtractor().applyAsInt(rowObject);
+		if(getLongKeyExtractor() != null) return getLongKeyExtractor().applyAsLong(rowObject);
+		if(getKeyExtractor() != null) return getKeyExtractor().apply(rowObject);
+		return getCellData(item);
+	}
+
 	/**
 	 * @return true if the column is grouped else false
 	 */
@@ -21,6 +21,7 @@ package com.jfoenix.controls;
 import com.jfoenix.skins.JFXTreeTableRowSkin;
 
 import javafx.scene.control.Skin;
+import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeTableRow;
 
 /**
@@ -31,6 +32,12 @@ import javafx.scene.control.TreeTableRow;
  * @since   2016-03-09
  */
 public class JFXTreeTableRow<T> extends TreeTableRow<T> {
+
+	/*
+	 * the paged item whose row is rendered by this row
+	 */
+	private PagedRecursiveTreeItem<?> pagedItem;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -38,6 +45,21 @@ public class JFXTreeTableRow<T> extends TreeTableRow<T> {
 		super();		
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void updateIndex(int i) {
+		super.updateIndex(i);
+		// paged items load the rows that are rendered, the paged item is the table root
+		TreeItem<T> item = getTreeItem();
+		PagedRecursiveTreeItem<?> paged = item instanceof PagedRecursiveTreeItem.PagedRow && item.getParent() instanceof PagedRecursiveTreeItem ?
+				(PagedRecursiveTreeItem<?>) item.getParent() : null;
+		if(pagedItem != null && pagedItem != paged) pagedItem.release(this);
+		pagedItem = paged;
+		if(paged != null) paged.render(this, getTreeTableView().isShowRoot() ? i - 1 : i);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
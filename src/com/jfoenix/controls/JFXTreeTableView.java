@@ -19,30 +19,56 @@
 package com.jfoenix.controls;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.event.EventHandler;
 import javafx.scene.control.Skin;
 import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeItem.TreeModificationEvent;
+import javafx.scene.control.TreeSortMode;
 import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableColumn.SortType;
 import javafx.scene.control.TreeTableRow;
 import javafx.scene.control.TreeTableView;
 import javafx.scene.input.MouseEvent;
 import javafx.util.Callback;
+import javafx.util.Duration;
 
 import com.jfoenix.concurrency.JFXUtilities;
+import com.jfoenix.controls.IndexSort.IndexComparator;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeGroup;
 import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
 import com.jfoenix.skins.JFXTreeTableViewSkin;
 
@@ -105,14 +131,33 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 
 		this.predicate.addListener((o,oldVal,newVal)-> filter(newVal));
 
+		this.search.addListener((o,oldVal,newVal)-> filter(getPredicate()));
+
+		this.searchColumns.addListener((ListChangeListener<JFXTreeTableColumn<S, ?>>) change -> {
+			// rebuild the index for the new columns
+			resetSearchIndex();
+			getSearchIndex();
+			if(getSearch() != null && !getSearch().isEmpty()) filter(getPredicate());
+		});
+
+		this.setSortPolicy(table -> {
+			// paged items can only be sorted by their data provider
+			if(getRoot() instanceof PagedRecursiveTreeItem) return ((PagedRecursiveTreeItem<S>) getRoot()).sort(getSortOrder());
+			return isAsyncSorting() ? sortAsync() : sortByKeys(table);
+		});
+
 		this.rootProperty().addListener((o,oldVal,newVal)->{
-			if(newVal != null){
-				setCurrentItemsCount(count(getRoot()));
-			}
+			if(oldVal != null)
+				oldVal.removeEventHandler(TreeItem.<S>childrenModificationEvent(), countHandler);
+			if(newVal != null)
+				newVal.addEventHandler(TreeItem.<S>childrenModificationEvent(), countHandler);
+			recount();
 		});
 
 		// compute the current items count
-		setCurrentItemsCount(count(getRoot()));
+		if(getRoot() != null)
+			getRoot().addEventHandler(TreeItem.<S>childrenModificationEvent(), countHandler);
+		recount();
 
 		//		getGroupOrder().addListener((Change<? extends TreeTableColumn<S, ?>> c) ->{
 		//			group();
@@ -130,12 +175,218 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 	 */
 	@Override
 	public void sort(){
+		// async sorting keeps the selection
+		if(isAsyncSorting()){
+			super.sort();
+			return;
+		}
 		getSelectionModel().clearSelection();
 		super.sort();
 		if(itemWasSelected)
 			getSelectionModel().select(0);
 	}
 
+	/**
+	 * whether or not the table is sorted in the background: the sort keys are read into
+	 * arrays on the FX thread, index arrays are sorted in parallel in the background, then 
+	 * the sorted children of all levels are installed at once on the FX thread, keeping 
+	 * the selection. a newer sort request cancels the running one
+	 */
+	private BooleanProperty asyncSorting = new SimpleBooleanProperty(false);
+
+	public final BooleanProperty asyncSortingProperty() {
+		return this.asyncSorting;
+	}
+
+	public final boolean isAsyncSorting() {
+		return this.asyncSortingProperty().get();
+	}
+
+	public final void setAsyncSorting(final boolean asyncSorting) {
+		this.asyncSortingProperty().set(asyncSorting);
+	}
+
+	private final AtomicLong sortGeneration = new AtomicLong();
+	private ScheduledThreadPoolExecutor sortExecutor;
+
+	private Boolean sortAsync(){
+		if(getRoot() == null || getSortMode() == null) return false;
+		final long generation = sortGeneration.incrementAndGet();
+		final List<TreeTableColumn<S, ?>> columns = new ArrayList<>();
+		for (TreeTableColumn<S, ?> column : getSortOrder())
+			if(column.isSortable()) columns.add(column);
+		if(columns.isEmpty()) return true;
+		// snapshot the levels to be sorted
+		final List<TreeItem<S>> parents = new ArrayList<>();
+		final List<List<TreeItem<S>>> levels = new ArrayList<>();
+		collectSortLevels(getRoot(), getSortMode() == TreeSortMode.ALL_DESCENDANTS, parents, levels);
+		// the cell values can only be read on the FX thread, the keys are read before sorting
+		final List<IndexComparator> comparators = new ArrayList<>(levels.size());
+		for (List<TreeItem<S>> level : levels) comparators.add(levelComparator(level, columns));
+
+		if(sortExecutor == null) sortExecutor = JFXUtilities.createDaemonExecutor("JFXTreeTableView sort");
+		sortExecutor.execute(()->{
+			final List<List<TreeItem<S>>> sortedLevels = new ArrayList<>(levels.size());
+			for (int i = 0; i < levels.size(); i++) {
+				if(sortGeneration.get() != generation) return;
+				sortedLevels.add(sortLevel(levels.get(i), comparators.get(i)));
+			}
+			Platform.runLater(()->{
+				if(sortGeneration.get() != generation) return;
+				List<TreeItem<S>> selectedItems = new ArrayList<>(getSelectionModel().getSelectedItems());
+				TreeItem<S> focusedItem = getFocusModel().getFocusedItem();
+				for (int i = 0; i < parents.size(); i++) {
+					ObservableList<TreeItem<S>> children = parents.get(i).getChildren();
+					// skip the levels that changed while sorting
+					if(sameItems(children, levels.get(i))) children.setAll(sortedLevels.get(i));
+				}
+				getSelectionModel().clearSelection();
+				for (TreeItem<S> item : selectedItems)
+					if(item != null) getSelectionModel().select(item);
+				if(focusedItem != null) getFocusModel().focus(getRow(focusedItem));
+			});
+		});
+		return true;
+	}
+
+	private void collectSortLevels(TreeItem<S> item, boolean deep, List<TreeItem<S>> parents, List<List<TreeItem<S>>> levels){
+		// don't force lazy items to create their children
+		if(item instanceof RecursiveTreeItem && !((RecursiveTreeItem<S>) item).isMaterialized()) return;
+		if(item.getChildren().size() > 1){
+			parents.add(item);
+			levels.add(new ArrayList<>(item.getChildren()));
+		}
+		if(deep)
+			for (TreeItem<S> child : item.getChildren())
+				if(!child.isLeaf()) collectSortLevels(child, true, parents, levels);
+	}
+
+	private static <S> boolean sameItems(List<TreeItem<S>> children, List<TreeItem<S>> snapshot){
+		if(children.size() != snapshot.size()) return false;
+		Map<TreeItem<S>, Boolean> items = new IdentityHashMap<>(snapshot.size());
+		for (TreeItem<S> item : snapshot) items.put(item, Boolean.TRUE);
+		for (TreeItem<S> child : children)
+			if(items.remove(child) == null) return false;
+		return true;
+	}
+
+	/*
+	 * reads the keys of every sort column into an array, the level items are 
+	 * compared by their indices in the level
+	 */
+	private IndexComparator levelComparator(List<TreeItem<S>> level, List<TreeTableColumn<S, ?>> columns){
+		final int size = level.size();
+		boolean dataRows = true;
+		for (TreeItem<S> item : level) dataRows &= isDataRow(item);
+
+		final IndexComparator[] comparators = new IndexComparator[columns.size()];
+		for (int c = 0; c < comparators.length; c++) {
+			TreeTableColumn<S, ?> column = columns.get(c);
+			JFXTreeTableColumn<S, ?> keyColumn = column instanceof JFXTreeTableColumn ? (JFXTreeTableColumn<S, ?>) column : null;
+			IndexComparator columnComparator;
+			if(dataRows && keyColumn != null && keyColumn.getIntKeyExtractor() != null){
+				final ToIntFunction<S> extractor = keyColumn.getIntKeyExtractor();
+				final int[] keys = new int[size];
+				for (int i = 0; i < size; i++) keys[i] = extractor.applyAsInt(level.get(i).getValue());
+				columnComparator = (a, b) -> Integer.compare(keys[a], keys[b]);
+			}else if(dataRows && keyColumn != null && keyColumn.getLongKeyExtractor() != null){
+				final ToLongFunction<S> extractor = keyColumn.getLongKeyExtractor();
+				final long[] keys = new long[size];
+				for (int i = 0; i < size; i++) keys[i] = extractor.applyAsLong(level.get(i).getValue());
+				columnComparator = (a, b) -> Long.compare(keys[a], keys[b]);
+			}else{
+				final Object[] keys = new Object[size];
+				for (int i = 0; i < size; i++) keys[i] = GroupTree.getKey(column, level.get(i));
+				final Comparator keysComparator = column.getComparator();
+				columnComparator = (a, b) -> keysComparator.compare(keys[a], keys[b]);
+			}
+			if(column.getSortType() == SortType.DESCENDING){
+				final IndexComparator ascending = columnComparator;
+				columnComparator = (a, b) -> ascending.compare(b, a);
+			}
+			comparators[c] = columnComparator;
+		}
+		return (a, b) -> {
+			for (IndexComparator comparator : comparators) {
+				int result = comparator.compare(a, b);
+				if(result != 0) return result;
+			}
+			return 0;
+		};
+	}
+
+	/*
+	 * sorts the indices of the level items, off the FX thread
+	 */
+	private static <S> List<TreeItem<S>> sortLevel(List<TreeItem<S>> level, IndexComparator comparator){
+		int[] order = IndexSort.sort(level.size(), comparator);
+		List<TreeItem<S>> sorted = new ArrayList<>(order.length);
+		for (int index : order) sorted.add(level.get(index));
+		return sorted;
+	}
+
+	/*
+	 * if one of the sort order columns has a key extractor, the tree items are sorted 
+	 * by reading the keys directly from the row objects, otherwise the default sort 
+	 * policy is used
+	 */
+	private Boolean sortByKeys(TreeTableView<S> table){
+		boolean useKeys = false;
+		for (TreeTableColumn<S, ?> column : getSortOrder())
+			if(column instanceof JFXTreeTableColumn && ((JFXTreeTableColumn<S, ?>) column).hasKeyExtractor())
+				useKeys = true;
+		if(!useKeys) return TreeTableView.DEFAULT_SORT_POLICY.call(table);
+		if(getRoot() == null || getSortMode() == null) return false;
+		sortChildren(getRoot(), keyComparator(new ArrayList<>(getSortOrder())), getSortMode() == TreeSortMode.ALL_DESCENDANTS);
+		return true;
+	}
+
+	/*
+	 * the comparator the children of the shown item are sorted with, null if they aren't sorted
+	 */
+	private Comparator<TreeItem<S>> childrenComparator(TreeItem<S> item){
+		// the groups are sorted by the group updates
+		if(getRoot() != originalRoot || getSortOrder().isEmpty() || getSortMode() == null) return null;
+		if(getSortMode() == TreeSortMode.ONLY_FIRST_LEVEL && item != getRoot()) return null;
+		return keyComparator(new ArrayList<>(getSortOrder()));
+	}
+
+	private void sortChildren(TreeItem<S> item, Comparator<TreeItem<S>> comparator, boolean deep){
+		// don't force lazy items to create their children
+		if(item instanceof RecursiveTreeItem && !((RecursiveTreeItem<S>) item).isMaterialized()) return;
+		FXCollections.sort(item.getChildren(), comparator);
+		if(deep)
+			for (TreeItem<S> child : item.getChildren())
+				if(!child.isLeaf()) sortChildren(child, comparator, true);
+	}
+
+	private Comparator<TreeItem<S>> keyComparator(List<TreeTableColumn<S, ?>> columns){
+		return (a, b) -> {
+			for (TreeTableColumn<S, ?> column : columns) {
+				if(!column.isSortable()) continue;
+				int result = compareKeys(column, a, b);
+				if(result != 0) return column.getSortType() == SortType.DESCENDING ? -result : result;
+			}
+			return 0;
+		};
+	}
+
+	private int compareKeys(TreeTableColumn<S, ?> column, TreeItem<S> a, TreeItem<S> b){
+		if(column instanceof JFXTreeTableColumn && isDataRow(a) && isDataRow(b)){
+			JFXTreeTableColumn<S, ?> keyColumn = (JFXTreeTableColumn<S, ?>) column;
+			if(keyColumn.getIntKeyExtractor() != null)
+				return Integer.compare(keyColumn.getIntKeyExtractor().applyAsInt(a.getValue()), keyColumn.getIntKeyExtractor().applyAsInt(b.getValue()));
+			if(keyColumn.getLongKeyExtractor() != null)
+				return Long.compare(keyColumn.getLongKeyExtractor().applyAsLong(a.getValue()), keyColumn.getLongKeyExtractor().applyAsLong(b.getValue()));
+		}
+		Comparator comparator = column.getComparator();
+		return comparator.compare(GroupTree.getKey(column, a), GroupTree.getKey(column, b));
+	}
+
+	private static boolean isDataRow(TreeItem<?> item){
+		return item.getValue() != null && !RecursiveTreeObject.isGroupRow(item.getValue());
+	}
+
 
 	// Allows for multiple column Grouping based on the order of the TreeTableColumns
 	// in this observableArrayList.
@@ -151,16 +402,13 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 
 	// this method will regroup the treetableview according to columns group order
 	public void group(TreeTableColumn<S, ?>... treeTableColumns){
-		// init groups map
+		// grouping needs all the rows, paged items only load the shown ones
+		if(getRoot() instanceof PagedRecursiveTreeItem) return;
 		if(groupingSemaphore.tryAcquire()){
-			if(groupOrder.size() == 0) groups = new HashMap<>();
 			try{
-				if(originalRoot == null) originalRoot = getRoot();				
-				for (TreeTableColumn<S, ?> treeTableColumn : treeTableColumns) 
-					groups = group(treeTableColumn, groups, null, (RecursiveTreeItem<S>) originalRoot);			
+				if(originalRoot == null) originalRoot = getRoot();
 				groupOrder.addAll(treeTableColumns);
-				// update table ui
-				buildGroupedRoot(groups, null, 0);
+				regroup(()->false);
 			}catch(Exception e){
 				e.printStackTrace();
 			}
@@ -169,12 +417,8 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 	}
 
 	private void refreshGroups(List<TreeTableColumn<S, ?>> groupColumns){
-		groups = new HashMap<>();
-		for (TreeTableColumn<S, ?> treeTableColumn : groupColumns) 
-			groups = group(treeTableColumn, groups, null, (RecursiveTreeItem<S>) originalRoot);
 		groupOrder.addAll(groupColumns);
-		// update table ui
-		buildGroupedRoot(groups, null, 0);
+		regroup(()->false);
 	}
 
 	public void unGroup(TreeTableColumn<S, ?>... treeTableColumns){
@@ -186,6 +430,7 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 					grouped.addAll(groupOrder);
 					groupOrder.clear();
 					JFXUtilities.runInFXAndWait(()->{
+						setGroupTree(null);
 						ArrayList<TreeTableColumn<S, ?>> sortOrder = new ArrayList<>();
 						sortOrder.addAll(getSortOrder());
 						setRoot(originalRoot);
@@ -202,132 +447,467 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 		}
 	}
 
-	private Map group(TreeTableColumn<S, ?> column, Map parentGroup , Object key, RecursiveTreeItem<S> root){
-		if(parentGroup.isEmpty()){
-			parentGroup = groupByFunction(root.filteredItems, column);
-			return parentGroup;
-		}
-		Object value = parentGroup.get(key);
-		if(value instanceof List){
-			Object newGroup = groupByFunction((List) value, column);
-			parentGroup.put(key, newGroup);
-			return parentGroup;
-		}else if(value instanceof Map){
-			for (Object childKey : ((Map)value).keySet()) 
-				value = group(column,(Map)value,childKey, root);
-			parentGroup.put(key, value);
-			return parentGroup;
-		}else if(key == null){
-			for (Object childKey : parentGroup.keySet()) 
-				parentGroup = group(column, parentGroup,childKey, root);
-			return parentGroup;
-		}
-		return parentGroup;
+	/*
+	 * groups the filtered items of the original root by all columns
+	 * in the group order, then updates the table root unless cancelled
+	 */
+	private void regroup(BooleanSupplier cancelled){
+		List<TreeItem<S>> items = new ArrayList<>(((RecursiveTreeItem<S>) originalRoot).filteredItems);
+		List<JFXTreeTableColumn<S, ?>> aggregateColumns = new ArrayList<>();
+		collectAggregateColumns(getColumns(), aggregateColumns);
+		GroupTree<S> tree = customGrouping ? GroupTree.build(items, new ArrayList<>(groupOrder), aggregateColumns, this::groupByFunction)
+				: GroupTree.build(items, new ArrayList<>(groupOrder), aggregateColumns, isParallelGrouping());
+		if(cancelled.getAsBoolean()) return;
+		buildGroupedRoot(tree, cancelled);
 	}
 
 	/*
-	 * stream implementation is faster regarding the performance 
-	 * however its not compatable when porting to mobile
+	 * whether or not a subclass overrides groupByFunction, the groups are then built through it
 	 */
-	//	protected Map groupByFunction(List<TreeItem<S>> items, TreeTableColumn<S, ?> column){
-	//		return items.stream().collect(Collectors.groupingBy(child-> column.getCellData((TreeItem<S>)child)));
-	//	}
+	private final boolean customGrouping = overridesGroupByFunction(getClass());
+
+	private static boolean overridesGroupByFunction(Class<?> type){
+		for (Class<?> c = type; c != JFXTreeTableView.class; c = c.getSuperclass()){
+			try {
+				c.getDeclaredMethod("groupByFunction", List.class, TreeTableColumn.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not declared by this class
+			}
+		}
+		return false;
+	}
 
+	/**
+	 * groups the items by the values of a column, subclasses can override it to customize
+	 * the groups. by default the table doesn't call it, the items are bucketed directly by
+	 * the column keys (see {@link JFXTreeTableColumn#getCellKey(TreeItem)}).
+	 * <p>
+	 * when overridden, it's called on the grouping thread for every group of the parent
+	 * column, and with a single item whenever an item is added to the grouped table
+	 *
+	 * @param items to be grouped
+	 * @param column grouping column
+	 * @return map of the grouping values to the items of every group
+	 */
 	protected Map groupByFunction(List<TreeItem<S>> items, TreeTableColumn<S, ?> column){
-		Map<Object, List<TreeItem<S>>> map = new HashMap<Object, List<TreeItem<S>>>();
+		Map<Object, List<TreeItem<S>>> map = new LinkedHashMap<>();
 		for (TreeItem<S> child : items) {
-			Object key = column.getCellData(child);
-			if (map.get(key) == null) {
-				map.put(key, new ArrayList<TreeItem<S>>());
+			Object key = GroupTree.getKey(column, child);
+			List<TreeItem<S>> group = map.get(key);
+			if (group == null) {
+				group = new ArrayList<>();
+				map.put(key, group);
 			}
-			map.get(key).add(child);
+			group.add(child);
 		}
 		return map;
 	}
 
+	/*
+	 * the grouping value of a single item, read through groupByFunction if overridden
+	 */
+	private Object getGroupKey(TreeTableColumn<S, ?> column, TreeItem<S> item){
+		if(!customGrouping) return GroupTree.getKey(column, item);
+		Map<?, ?> groups = groupByFunction(Collections.singletonList(item), column);
+		return groups.isEmpty() ? null : groups.keySet().iterator().next();
+	}
+
+	private void collectAggregateColumns(List<TreeTableColumn<S, ?>> columns, List<JFXTreeTableColumn<S, ?>> aggregateColumns){
+		for (TreeTableColumn<S, ?> column : columns) {
+			if(!column.getColumns().isEmpty())
+				collectAggregateColumns(column.getColumns(), aggregateColumns);
+			else if(column instanceof JFXTreeTableColumn && ((JFXTreeTableColumn<S, ?>) column).getAggregate() != null)
+				aggregateColumns.add((JFXTreeTableColumn<S, ?>) column);
+		}
+	}
+
+	/**
+	 * @param group tree item of a group row
+	 * @param column aggregated column
+	 * @return the aggregate value of the column for the group, null if not available
+	 */
+	ObservableValue<Number> getAggregateValue(TreeItem<?> group, JFXTreeTableColumn<?, ?> column){
+		GroupTree<S> tree = groupTree;
+		return tree == null ? null : tree.getAggregateValue(group, (JFXTreeTableColumn<S, ?>) column);
+	}
+
+	/**
+	 * whether or not grouping splits the items into chunks that are grouped
+	 * in parallel on the common {@link java.util.concurrent.ForkJoinPool ForkJoinPool}, 
+	 * disabled by default as it's not supported when porting to mobile
+	 */
+	private BooleanProperty parallelGrouping = new SimpleBooleanProperty(false);
+
+	public final BooleanProperty parallelGroupingProperty() {
+		return this.parallelGrouping;
+	}
+
+	public final boolean isParallelGrouping() {
+		return this.parallelGroupingProperty().get();
+	}
+
+	public final void setParallelGrouping(final boolean parallelGrouping) {
+		this.parallelGroupingProperty().set(parallelGrouping);
+	}
+
+	/**
+	 * whether or not the rows only create and lay out the cells of the columns that
+	 * are scrolled into view (plus a margin), the cells are recycled between columns 
+	 * sharing the same cell factory while scrolling horizontally. 
+	 * it's meant for tables with a large number of columns
+	 */
+	private BooleanProperty columnVirtualization = new SimpleBooleanProperty(false);
+
+	public final BooleanProperty columnVirtualizationProperty() {
+		return this.columnVirtualization;
+	}
+
+	public final boolean isColumnVirtualization() {
+		return this.columnVirtualizationProperty().get();
+	}
+
+	public final void setColumnVirtualization(final boolean columnVirtualization) {
+		this.columnVirtualizationProperty().set(columnVirtualization);
+	}
+
+	/**
+	 * whether or not the table keeps showing the last row when rows are appended
+	 * (e.g. to a {@link LiveRecursiveTreeItem}), it stops following the new rows 
+	 * once the user scrolls away from the last row
+	 */
+	private BooleanProperty autoScroll = new SimpleBooleanProperty(false);
+
+	public final BooleanProperty autoScrollProperty() {
+		return this.autoScroll;
+	}
+
+	public final boolean isAutoScroll() {
+		return this.autoScrollProperty().get();
+	}
+
+	public final void setAutoScroll(final boolean autoScroll) {
+		this.autoScrollProperty().set(autoScroll);
+	}
+
 	/*
 	 * this method is used to update tree items and set the new root 
 	 * after grouping the data model
 	 */
-	private void buildGroupedRoot(Map groupedItems, RecursiveTreeItem parent , int groupIndex){
-		boolean setRoot = false;
-		if(parent == null){
-			parent = new RecursiveTreeItem<>(new RecursiveTreeObject(), RecursiveTreeObject::getChildren);
-			setRoot = true;
+	private void buildGroupedRoot(GroupTree<S> tree, BooleanSupplier cancelled){
+		final RecursiveTreeItem<S> newRoot = new RecursiveTreeItem<>(new RecursiveTreeObject(), RecursiveTreeObject.childrenFactory());
+		tree.root.treeItem = newRoot;
+		tree.groupItems.put(newRoot, tree.root);
+		buildGroupNodes(tree, tree.root, newRoot);
+
+		// update ui
+		JFXUtilities.runInFX(()->{
+			if(cancelled.getAsBoolean()) return;
+			setGroupTree(tree);
+			ArrayList<TreeTableColumn<S, ?>> sortOrder = new ArrayList<>();
+			sortOrder.addAll(getSortOrder());
+			setRoot(newRoot);
+			getSortOrder().addAll(sortOrder);
+			getSelectionModel().select(0);
+		});
+	}
+
+	private void buildGroupNodes(GroupTree<S> tree, GroupTree.Node group, RecursiveTreeItem<S> parent){
+		List<TreeItem<S>> nodes = new ArrayList<>(group.children.size());
+		for(GroupTree.Node child : group.children.values()){
+			RecursiveTreeItem<S> node = createGroupItem(tree, child);
+			nodes.add(node);
+			if(child.isLeaf()){
+				List<TreeItem<S>> items = tree.getItems(child);
+				for (TreeItem<S> item : items) tree.leafGroups.put(item, child);
+				node.addItems(items);
+			}else{
+				buildGroupNodes(tree, child, node);
+			}
 		}
+		parent.addItems(nodes);
+	}
 
-		for(Object key : groupedItems.keySet()){
-			RecursiveTreeObject groupItem = new RecursiveTreeObject<>();
-			groupItem.setGroupedValue(key);
-			groupItem.setGroupedColumn(groupOrder.get(groupIndex));
+	private RecursiveTreeItem<S> createGroupItem(GroupTree<S> tree, GroupTree.Node group){
+		RecursiveTreeGroup groupItem = new RecursiveTreeGroup<>();
+		groupItem.setGroupedValue(group.value);
+		groupItem.setGroupedColumn(tree.getColumn(group));
 
-			RecursiveTreeItem node = new RecursiveTreeItem<>(groupItem, RecursiveTreeObject::getChildren);
-			// TODO: need to be removed once the selection issue is fixed
-			node.expandedProperty().addListener((o,oldVal,newVal)->{
-				getSelectionModel().clearSelection();
-			});
+		RecursiveTreeItem node = new RecursiveTreeItem<>(groupItem, RecursiveTreeObject.childrenFactory());
+		// TODO: need to be removed once the selection issue is fixed
+		node.expandedProperty().addListener((o,oldVal,newVal)->{
+			getSelectionModel().clearSelection();
+		});
+		group.treeItem = node;
+		tree.groupItems.put(node, group);
+		return node;
+	}
+
+	/*
+	 * once grouped, the group nodes are updated incrementally: items added to / removed from 
+	 * the original root (source list changes or filtering) are added to / removed from their 
+	 * leaf group at their place in the original root order, and items are moved to another 
+	 * group when a grouped column value changes.
+	 * group nodes are only created or removed when a group appears or becomes empty.
+	 * only the direct children of the original root are grouped, the nested items stay 
+	 * under their parent tree item (shared by both roots), which shows their changes itself
+	 */
+
+	private GroupTree<S> groupTree;
 
-			parent.originalItems.add(node);
-			parent.getChildren().add(node);			
+	private final EventHandler<TreeModificationEvent<S>> groupUpdatesHandler = event -> {
+		if(event.getTreeItem() != originalRoot) return;
+		final List<? extends TreeItem<S>> removed = event.wasRemoved() ? new ArrayList<>(event.getRemovedChildren()) : null;
+		final List<? extends TreeItem<S>> added = event.wasAdded() ? new ArrayList<>(event.getAddedChildren()) : null;
+		JFXUtilities.runInFX(()->{
+			if(groupTree == null) return;
+			if(removed != null) removeGroupedItems(removed);
+			if(added != null) addGroupedItems(added);
+		});
+	};
+
+	// cell values of the grouped columns that are tracked, and the item they belong to
+	private final Map<ObservableValue<?>, TreeItem<S>> trackedValues = new IdentityHashMap<>();
+	private final Map<TreeItem<S>, ObservableValue<?>[]> trackedItems = new IdentityHashMap<>();
+
+	private final ChangeListener<Object> groupedValueListener = (o,oldVal,newVal)->{
+		JFXUtilities.runInFX(()->{
+			TreeItem<S> item = trackedValues.get(o);
+			if(item != null) moveGroupedItem(item);
+		});
+	};
 
-			Object children = groupedItems.get(key);
-			if(children instanceof List){
-				node.originalItems.addAll((List)children);
-				node.getChildren().addAll((List)children);
-			}else if(children instanceof Map){
-				buildGroupedRoot((Map)children, node, groupIndex+1);
+	// must be called on the FX thread
+	private void setGroupTree(GroupTree<S> tree){
+		for (ObservableValue<?> value : trackedValues.keySet())
+			value.removeListener(groupedValueListener);
+		trackedValues.clear();
+		trackedItems.clear();
+		if(groupTree == null && tree != null)
+			originalRoot.addEventHandler(TreeItem.<S>childrenModificationEvent(), groupUpdatesHandler);
+		else if(groupTree != null && tree == null)
+			originalRoot.removeEventHandler(TreeItem.<S>childrenModificationEvent(), groupUpdatesHandler);
+		groupTree = tree;
+		if(tree != null && isGroupedValuesTracked())
+			for (TreeItem<S> item : tree.leafGroups.keySet()) trackGroupedValues(item);
+	}
+
+	private void trackGroupedValues(TreeItem<S> item){
+		ObservableValue<?>[] values = new ObservableValue<?>[groupTree.columns.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = groupTree.columns.get(i).getCellObservableValue(item);
+			if(values[i] != null){
+				values[i].addListener(groupedValueListener);
+				trackedValues.put(values[i], item);
 			}
 		}
+		trackedItems.put(item, values);
+	}
 
-		// update ui
-		if(setRoot){
-			final RecursiveTreeItem<S> newParent = parent;
-			JFXUtilities.runInFX(()->{
-				ArrayList<TreeTableColumn<S, ?>> sortOrder = new ArrayList<>();
-				sortOrder.addAll(getSortOrder());
-				setRoot(newParent);		
-				getSortOrder().addAll(sortOrder);
-				getSelectionModel().select(0);
-			});
+	private void untrackGroupedValues(TreeItem<S> item){
+		ObservableValue<?>[] values = trackedItems.remove(item);
+		if(values == null) return;
+		for (ObservableValue<?> value : values) {
+			if(value != null){
+				value.removeListener(groupedValueListener);
+				trackedValues.remove(value);
+			}
 		}
 	}
 
+	private void addGroupedItems(List<? extends TreeItem<S>> items){
+		Map<GroupTree.Node, List<TreeItem<S>>> groupedItems = new LinkedHashMap<>();
+		for (TreeItem<S> item : items) {
+			if(groupTree.leafGroups.containsKey(item)) continue;
+			// find or create the leaf group of the item
+			GroupTree.Node group = groupTree.root;
+			while(!group.isLeaf()){
+				Object value = getGroupKey(groupTree.columns.get(group.depth), item);
+				GroupTree.Node child = group.children.get(value);
+				if(child == null){
+					child = groupTree.addGroup(group, value);
+					((RecursiveTreeItem<S>) group.treeItem).addItems(Collections.singletonList(createGroupItem(groupTree, child)));
+				}
+				group = child;
+			}
+			groupTree.leafGroups.put(item, group);
+			List<TreeItem<S>> groupItems = groupedItems.get(group);
+			if(groupItems == null){
+				groupItems = new ArrayList<>();
+				groupedItems.put(group, groupItems);
+			}
+			groupItems.add(item);
+			groupTree.addToAggregates(group, item);
+			if(isGroupedValuesTracked()) trackGroupedValues(item);
+		}
+		if(groupedItems.isEmpty()) return;
+		Comparator<TreeItem<S>> order = sourceOrder(items);
+		for (Map.Entry<GroupTree.Node, List<TreeItem<S>>> entry : groupedItems.entrySet()){
+			if(order == null) ((RecursiveTreeItem<S>) entry.getKey().treeItem).addItems(entry.getValue());
+			else ((RecursiveTreeItem<S>) entry.getKey().treeItem).addItems(entry.getValue(), order);
+			groupTree.publishAggregates(entry.getKey());
+		}
+	}
 
 	/*
-	 * this method will filter the treetable and it  
+	 * the order of the items of the original root, so the items shown again (e.g. by the 
+	 * filter) are inserted at their place in their group. it's null if the items are the 
+	 * last ones of the original root, as they come after the items of every group
 	 */
+	private Comparator<TreeItem<S>> sourceOrder(List<? extends TreeItem<S>> items){
+		List<TreeItem<S>> sourceItems = ((RecursiveTreeItem<S>) originalRoot).originalItems;
+		int start = sourceItems.size() - items.size();
+		boolean appended = start >= 0;
+		for (int i = 0; appended && i < items.size(); i++) appended = sourceItems.get(start + i) == items.get(i);
+		if(appended) return null;
+		Map<TreeItem<S>, Integer> sourceIndex = new IdentityHashMap<>(sourceItems.size());
+		for (int i = 0; i < sourceItems.size(); i++) sourceIndex.put(sourceItems.get(i), i);
+		return Comparator.comparingInt(item -> sourceIndex.getOrDefault(item, Integer.MAX_VALUE));
+	}
 
-	private Timer t;
+	private void removeGroupedItems(List<? extends TreeItem<S>> items){
+		Map<GroupTree.Node, Map<TreeItem<S>, Boolean>> groupedItems = new LinkedHashMap<>();
+		for (TreeItem<S> item : items) {
+			GroupTree.Node group = groupTree.leafGroups.remove(item);
+			if(group == null) continue;
+			untrackGroupedValues(item);
+			Map<TreeItem<S>, Boolean> groupItems = groupedItems.get(group);
+			if(groupItems == null){
+				groupItems = new IdentityHashMap<>();
+				groupedItems.put(group, groupItems);
+			}
+			groupItems.put(item, Boolean.TRUE);
+		}
+		for (Map.Entry<GroupTree.Node, Map<TreeItem<S>, Boolean>> entry : groupedItems.entrySet()) {
+			GroupTree.Node group = entry.getKey();
+			((RecursiveTreeItem<S>) group.treeItem).removeItems(entry.getValue());
+			// the whole batch is subtracted before recomputing the min / max once per node
+			for (TreeItem<S> item : entry.getValue().keySet())
+				groupTree.removeFromAggregates(group, item);
+			groupTree.publishAggregates(group);
+			// remove the groups that became empty
+			while(group.parent != null && group.treeItem.originalItems.isEmpty()){
+				Map<TreeItem<S>, Boolean> emptyGroup = new IdentityHashMap<>(1);
+				emptyGroup.put((TreeItem<S>) group.treeItem, Boolean.TRUE);
+				((RecursiveTreeItem<S>) group.parent.treeItem).removeItems(emptyGroup);
+				groupTree.removeGroup(group);
+				group = group.parent;
+			}
+		}
+	}
 
-	private final void filter(Predicate<TreeItem<S>> predicate){
-		if(originalRoot == null) originalRoot = getRoot();
-		if(t!=null){
-			t.cancel();
-			t.purge();
+	private void moveGroupedItem(TreeItem<S> item){
+		if(groupTree == null) return;
+		GroupTree.Node group = groupTree.leafGroups.get(item);
+		if(group == null) return;
+		for (GroupTree.Node node = group; node.parent != null; node = node.parent) {
+			if(!Objects.equals(node.value, getGroupKey(groupTree.getColumn(node), item))){
+				List<TreeItem<S>> items = Collections.singletonList(item);
+				removeGroupedItems(items);
+				addGroupedItems(items);
+				return;
+			}
 		}
-		t = new Timer();
-		t.schedule(new TimerTask() {
-			@Override
-			public void run() {
-				/*
-				 *  filter the original root and regroup the data
-				 */
-				new Thread(()->{
-					// filter the ungrouped root
-					((RecursiveTreeItem) originalRoot).setPredicate(predicate);
-					// regroup the data
-					if(!groupOrder.isEmpty()){
-						ArrayList<TreeTableColumn<S, ?>> tempGroups = new ArrayList<>(groupOrder);
-						groupOrder.clear();
-						group(tempGroups.toArray(new TreeTableColumn[tempGroups.size()]));	
-					}
-					Platform.runLater(()->{
-						getSelectionModel().select(0);	
-						setCurrentItemsCount(count(getRoot()));
-					});
-				}).start();
+	}
+
+	/**
+	 * whether or not the cell values of the grouped columns are observed, so an item 
+	 * moves to its new group when one of its grouped values changes. It adds a listener
+	 * per grouped item and column, thus it's disabled by default
+	 */
+	private BooleanProperty groupedValuesTracked = new SimpleBooleanProperty(false);
+
+	public final BooleanProperty groupedValuesTrackedProperty() {
+		return this.groupedValuesTracked;
+	}
+
+	public final boolean isGroupedValuesTracked() {
+		return this.groupedValuesTrackedProperty().get();
+	}
+
+	public final void setGroupedValuesTracked(final boolean groupedValuesTracked) {
+		this.groupedValuesTrackedProperty().set(groupedValuesTracked);
+	}
+
+
+	/*
+	 * this method will filter the treetable and regroup the data, filter runs are 
+	 * debounced and executed one at a time on the table filter thread. 
+	 * each run gets a new generation, so older runs stop as soon as a newer one 
+	 * is requested and only the latest result is published to the FX thread
+	 */
+
+	private final AtomicLong filterGeneration = new AtomicLong();
+	private ScheduledThreadPoolExecutor filterExecutor;
+	private ScheduledFuture<?> pendingFilter;
+	private CompletableFuture<Void> filterCompletion = CompletableFuture.completedFuture(null);
+
+	private synchronized final void filter(Predicate<TreeItem<S>> predicate){
+		// filter once the batch update ends
+		if(updateLevel > 0){
+			filterPending = true;
+			return;
+		}
+		if(originalRoot == null) originalRoot = getRoot();
+		final String query = getSearch() == null ? "" : getSearch().toLowerCase(Locale.ROOT);
+		final SearchIndex<S> index = query.isEmpty() ? null : getSearchIndex();
+		final long generation = filterGeneration.incrementAndGet();
+		final BooleanSupplier cancelled = ()-> filterGeneration.get() != generation;
+		if(pendingFilter != null) pendingFilter.cancel(false);
+		// superseded requests complete together with the latest one
+		if(filterCompletion.isDone()) filterCompletion = new CompletableFuture<>();
+		final CompletableFuture<Void> completion = filterCompletion;
+		pendingFilter = getFilterExecutor().schedule(()->{
+			try{
+				if(cancelled.getAsBoolean()) return;
+				// the search is answered from the index, then combined with the predicate
+				Predicate<TreeItem<S>> filterPredicate = index == null ? predicate : new SearchPredicate<>(predicate, query, index);
+				// filter the ungrouped root, the groups are updated from its changes
+				if(!((RecursiveTreeItem<S>) originalRoot).applyPredicate(filterPredicate, cancelled, this::childrenComparator)) return;
+				Platform.runLater(()->{
+					if(cancelled.getAsBoolean()) return;
+					recountSources();
+					getSelectionModel().select(0);	
+					completion.complete(null);
+				});
+			}catch(Exception e){
+				if(!cancelled.getAsBoolean()) completion.completeExceptionally(e);
+				e.printStackTrace();
 			}
-		},  500);
+		}, (long) getFilterDelay().toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * the filter thread also builds and updates the search index
+	 */
+	private synchronized ScheduledThreadPoolExecutor getFilterExecutor(){
+		if(filterExecutor == null) filterExecutor = JFXUtilities.createDaemonExecutor("JFXTreeTableView filter");
+		return filterExecutor;
+	}
+
+	/**
+	 * @return a future that completes once the result of the latest predicate
+	 * is shown in the table
+	 */
+	public final synchronized CompletableFuture<Void> getFilterCompletion() {
+		return filterCompletion;
+	}
+
+	/**
+	 * the delay used to debounce predicate changes before filtering
+	 */
+	private ObjectProperty<Duration> filterDelay = new SimpleObjectProperty<Duration>(Duration.millis(500));
+
+	public final ObjectProperty<Duration> filterDelayProperty() {
+		return this.filterDelay;
+	}
+
+	public final Duration getFilterDelay() {
+		return this.filterDelayProperty().get();
+	}
+
+	public final void setFilterDelay(final Duration filterDelay) {
+		this.filterDelayProperty().set(filterDelay);
 	}
 
 	private ObjectProperty<Predicate<TreeItem<S>>> predicate = new SimpleObjectProperty<Predicate<TreeItem<S>>>((TreeItem<S> t) -> true);
@@ -344,8 +924,191 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 		this.predicateProperty().set(predicate);
 	}
 
+	/*
+	 * batch updates, the changes of the data lists are applied once the
+	 * outermost update ends. only used from the FX thread
+	 */
+	private int updateLevel = 0;
+	private boolean filterPending = false;
+	private RecursiveTreeItem<S> updatedRoot;
+
+	/**
+	 * starts a batch update, until the matching {@link #endUpdate()} the changes of the 
+	 * data lists are not shown and the table isn't filtered, grouped or counted.
+	 * updates can be nested, must be called from the FX thread
+	 */
+	public void beginUpdate(){
+		if(updateLevel++ > 0) return;
+		if(originalRoot == null) originalRoot = getRoot();
+		// paged items are updated from their data provider
+		if(originalRoot instanceof RecursiveTreeItem && !(originalRoot instanceof PagedRecursiveTreeItem)){
+			updatedRoot = (RecursiveTreeItem<S>) originalRoot;
+			updatedRoot.beginUpdate();
+		}
+	}
+
+	/**
+	 * ends a batch update, the changes are applied with one change per tree level,
+	 * then the table is filtered (if the predicate changed meanwhile) and counted once
+	 */
+	public void endUpdate(){
+		if(updateLevel == 0) throw new IllegalStateException("endUpdate called without beginUpdate");
+		if(updateLevel > 1){
+			updateLevel--;
+			return;
+		}
+		try{
+			// the grouped items are updated from the root changes
+			if(updatedRoot != null) updatedRoot.endUpdate();
+		}finally{
+			updatedRoot = null;
+			updateLevel = 0;
+		}
+		recount();
+		if(filterPending){
+			filterPending = false;
+			filter(getPredicate());
+		}
+	}
+
+	/**
+	 * runs the changes as a single batch update
+	 * 
+	 * @param changes the changes of the data lists
+	 */
+	public void batch(Runnable changes){
+		beginUpdate();
+		try{
+			changes.run();
+		}finally{
+			endUpdate();
+		}
+	}
+
+	/*
+	 * quick search, the items of the original root are indexed by the search columns 
+	 * in the background, the index is updated when items are added or removed.
+	 * the index is only accessed from the filter thread
+	 */
+	private SearchIndex<S> searchIndex;
+
+	// the root replaces its items list when its value changes
+	private final InvalidationListener searchRootListener = o -> {
+		resetSearchIndex();
+		getSearchIndex();
+	};
+
+	private final ListChangeListener<TreeItem<S>> searchIndexUpdater = change -> {
+		final SearchIndex<S> index = searchIndex;
+		final List<TreeItem<S>> addedItems = new ArrayList<>();
+		final List<TreeItem<S>> removedItems = new ArrayList<>();
+		while (change.next()) {
+			removedItems.addAll(change.getRemoved());
+			addedItems.addAll(change.getAddedSubList());
+		}
+		getFilterExecutor().execute(()->{
+			index.remove(removedItems);
+			index.add(addedItems);
+		});
+	};
+
+	private SearchIndex<S> getSearchIndex(){
+		if(originalRoot == null) originalRoot = getRoot();
+		// paged items are filtered by their data provider
+		if(searchColumns.isEmpty() || !(originalRoot instanceof RecursiveTreeItem) || originalRoot instanceof PagedRecursiveTreeItem){
+			resetSearchIndex();
+			return null;
+		}
+		RecursiveTreeItem<S> root = (RecursiveTreeItem<S>) originalRoot;
+		if(searchIndex == null || searchIndex.root != root || searchIndex.source != root.originalItems){
+			resetSearchIndex();
+			final SearchIndex<S> index = new SearchIndex<>(root, new ArrayList<>(searchColumns));
+			final List<TreeItem<S>> items = new ArrayList<>(root.originalItems);
+			root.originalItems.addListener(searchIndexUpdater);
+			root.valueProperty().addListener(searchRootListener);
+			getFilterExecutor().execute(()-> index.add(items));
+			searchIndex = index;
+		}
+		return searchIndex;
+	}
+
+	private void resetSearchIndex(){
+		if(searchIndex != null){
+			searchIndex.source.removeListener(searchIndexUpdater);
+			searchIndex.root.valueProperty().removeListener(searchRootListener);
+			searchIndex = null;
+		}
+	}
+
+	/*
+	 * matches the items found by the index and the predicate, the items that are not 
+	 * indexed (i.e. nested items) are matched against their values. the predicate is 
+	 * created on the filter thread, it's also tested on the FX thread when items are 
+	 * added, there the items are matched against their values without reading the index
+	 */
+	private static final class SearchPredicate<S extends RecursiveTreeObject<S>> implements RecursiveTreeItem.NarrowingPredicate<S> {
+		private final Predicate<TreeItem<S>> predicate;
+		private final String query;
+		private final SearchIndex<S> index;
+		private final Map<TreeItem<S>, Boolean> matches;
+		private final Thread indexThread = Thread.currentThread();
+
+		SearchPredicate(Predicate<TreeItem<S>> predicate, String query, SearchIndex<S> index){
+			this.predicate = predicate;
+			this.query = query;
+			this.index = index;
+			this.matches = index.search(query);
+		}
+
+		@Override
+		public boolean test(TreeItem<S> item) {
+			if(predicate != null && !predicate.test(item)) return false;
+			if(matches.containsKey(item)) return true;
+			return (Thread.currentThread() != indexThread || !index.contains(item)) && index.matches(item, query);
+		}
+
+		@Override
+		public boolean narrows(Predicate<TreeItem<S>> previous) {
+			// typing more characters only narrows the previous search
+			if(previous instanceof SearchPredicate){
+				SearchPredicate<S> previousSearch = (SearchPredicate<S>) previous;
+				return previousSearch.predicate == predicate && previousSearch.index == index && query.contains(previousSearch.query);
+			}
+			return previous == predicate;
+		}
+	}
+
+	/**
+	 * the columns used by the search, their values are indexed
+	 */
+	private ObservableList<JFXTreeTableColumn<S, ?>> searchColumns = FXCollections.observableArrayList();
+
+	public final ObservableList<JFXTreeTableColumn<S, ?>> getSearchColumns() {
+		return searchColumns;
+	}
+
+	/**
+	 * the text searched in the search columns (case insensitive), the table shows the 
+	 * items that contain it and match the predicate.
+	 * <p>
+	 * <b>Note:</b> the search is ignored if there are no search columns, and the index 
+	 * isn't updated when the value of an item changes
+	 */
+	private StringProperty search = new SimpleStringProperty();
+
+	public final StringProperty searchProperty() {
+		return this.search;
+	}
+
+	public final String getSearch() {
+		return this.searchProperty().get();
+	}
+
+	public final void setSearch(final String search) {
+		this.searchProperty().set(search);
+	}
+
 	private IntegerProperty currentItemsCount = new SimpleIntegerProperty(0);
-	private Map<Object, Map<Object, ?>> groups;
 
 	public final IntegerProperty currentItemsCountProperty() {
 		return this.currentItemsCount;
@@ -359,14 +1122,87 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
 		this.currentItemsCountProperty().set(currentItemsCount);
 	}
 
+	/*
+	 * the items count is updated from the children changes of the root sub tree,
+	 * only the added / removed sub trees are counted. the lazy items that didn't create 
+	 * their children are counted from their children source, the count of their source
+	 * is kept until their children are created, it's then replaced by the count of the
+	 * children, or until they are removed. only used from the FX thread
+	 */
+	private final Map<TreeItem<?>, Integer> sourceCounts = new IdentityHashMap<>();
+
+	private final EventHandler<TreeModificationEvent<S>> countHandler = event -> {
+		// recounted once the batch update ends
+		if(updateLevel > 0) return;
+		int delta = 0;
+		Integer sourceCount = sourceCounts.remove(event.getTreeItem());
+		if(sourceCount != null){
+			// a lazy item created its children
+			delta -= sourceCount;
+			for (TreeItem<S> child : event.getTreeItem().getChildren()) delta += count(child);
+		}else{
+			if(event.wasAdded())
+				for (TreeItem<S> child : event.getAddedChildren()) delta += count(child);
+			if(event.wasRemoved())
+				for (TreeItem<S> child : event.getRemovedChildren()) delta -= countRemoved(child);
+		}
+		if(delta != 0){
+			final int itemsDelta = delta;
+			JFXUtilities.runInFX(()->setCurrentItemsCount(getCurrentItemsCount() + itemsDelta));
+		}
+	};
+
+	private void recount(){
+		sourceCounts.clear();
+		setCurrentItemsCount(count(getRoot()));
+	}
+
+	/*
+	 * the lazy items are filtered without children changes, their source is counted again
+	 */
+	private void recountSources(){
+		int delta = 0;
+		for (Map.Entry<TreeItem<?>, Integer> entry : sourceCounts.entrySet()) {
+			int sourceCount = ((RecursiveTreeItem<?>) entry.getKey()).countVisibleSourceDescendants();
+			delta += sourceCount - entry.getValue();
+			entry.setValue(sourceCount);
+		}
+		if(delta != 0) setCurrentItemsCount(getCurrentItemsCount() + delta);
+	}
+
 	private int count(TreeItem<?> node){
 		if(node == null ) return 0;
-
-		int count = 1;
-		if(node.getValue() == null ||  (node.getValue() != null && node.getValue().getClass().equals(RecursiveTreeObject.class))) count = 0;
+		// the rows of paged items are counted even if not loaded
+		if(node instanceof PagedRecursiveTreeItem.PagedRow) return 1;
+		int count = ownCount(node);
+		if(node instanceof RecursiveTreeItem && !((RecursiveTreeItem<?>) node).isMaterialized()){
+			int sourceCount = ((RecursiveTreeItem<?>) node).countVisibleSourceDescendants();
+			sourceCounts.put(node, sourceCount);
+			return count + sourceCount;
+		}
 		for (TreeItem<?> child : node.getChildren()) {
 			count += count(child);
 		}
 		return count;
 	}
+
+	/*
+	 * counts a removed sub tree as it was counted
+	 */
+	private int countRemoved(TreeItem<?> node){
+		if(node instanceof PagedRecursiveTreeItem.PagedRow) return 1;
+		Integer sourceCount = sourceCounts.remove(node);
+		if(sourceCount != null) return ownCount(node) + sourceCount;
+		if(node instanceof RecursiveTreeItem && !((RecursiveTreeItem<?>) node).isMaterialized())
+			return ownCount(node) + ((RecursiveTreeItem<?>) node).countVisibleSourceDescendants();
+		int count = ownCount(node);
+		for (TreeItem<?> child : node.getChildren()) {
+			count += countRemoved(child);
+		}
+		return count;
+	}
+
+	private static int ownCount(TreeItem<?> node){
+		return node.getValue() == null || RecursiveTreeObject.isGroupRow(node.getValue()) ? 0 : 1;
+	}
 }
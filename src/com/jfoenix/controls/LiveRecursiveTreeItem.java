@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+
+/**
+ * LiveRecursiveTreeItem is a root RecursiveTreeItem that keeps the most recent rows
+ * appended to it (e.g. a log or an event tail). rows can be appended from any thread,
+ * they are queued then added at most once per pulse with a single range addition.
+ * <p>
+ * once the capacity is exceeded, the oldest rows are trimmed in one batch of 1/8 of
+ * the capacity, so the rows are shifted once per batch rather than on every pulse.
+ * <p>
+ * the table can follow the new rows using {@link JFXTreeTableView#autoScrollProperty()}
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+public class LiveRecursiveTreeItem<T extends RecursiveTreeObject<T>> extends RecursiveTreeItem<T> {
+
+	/*
+	 * the rows are trimmed down to capacity - capacity / TRIM_RATIO
+	 */
+	private static final int TRIM_RATIO = 8;
+
+	private final int capacity;
+	private final ConcurrentLinkedQueue<T> pendingRows = new ConcurrentLinkedQueue<>();
+
+	/*
+	 * set while the drain timer is (being) started
+	 */
+	private final AtomicBoolean draining = new AtomicBoolean(false);
+	private final AnimationTimer drainTimer = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			drain();
+			draining.set(false);
+			// rows appended after draining are added in the next pulse
+			if(pendingRows.isEmpty() || !draining.compareAndSet(false, true)) stop();
+		}
+	};
+
+	/**
+	 * creates a live tree item
+	 *
+	 * @param capacity the maximum number of rows, the oldest rows are removed first
+	 */
+	public LiveRecursiveTreeItem(int capacity) {
+		super(FXCollections.observableArrayList(), RecursiveTreeObject.childrenFactory());
+		this.capacity = Math.max(capacity, 1);
+	}
+
+	/**
+	 * @return the maximum number of rows
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+
+	/**
+	 * appends a row, can be called from any thread
+	 *
+	 * @param row to be appended
+	 */
+	public void append(T row){
+		pendingRows.offer(row);
+		requestDrain();
+	}
+
+	/**
+	 * appends rows, can be called from any thread
+	 *
+	 * @param rows to be appended
+	 */
+	public void appendAll(Collection<? extends T> rows){
+		pendingRows.addAll(rows);
+		requestDrain();
+	}
+
+	private void requestDrain(){
+		if(draining.compareAndSet(false, true)) Platform.runLater(drainTimer::start);
+	}
+
+	/*
+	 * adds the queued rows, trimming the oldest rows if the capacity is exceeded
+	 */
+	void drain(){
+		List<T> rows = new ArrayList<>();
+		T row;
+		while((row = pendingRows.poll()) != null) rows.add(row);
+		if(rows.isEmpty()) return;
+		int removedCount = 0;
+		int size = originalItems.size() + rows.size();
+		if(size > capacity){
+			removedCount = size - (capacity - capacity / TRIM_RATIO);
+			// more rows than kept were queued, the oldest queued rows are dropped as well
+			if(removedCount > originalItems.size()){
+				rows = rows.subList(removedCount - originalItems.size(), rows.size());
+				removedCount = originalItems.size();
+			}
+		}
+		appendItems(rows, removedCount);
+	}
+
+}
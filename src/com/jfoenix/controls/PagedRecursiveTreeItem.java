@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.jfoenix.concurrency.JFXUtilities;
+import com.jfoenix.controls.datamodels.treetable.ColumnFilter;
+import com.jfoenix.controls.datamodels.treetable.PagedDataProvider;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.application.Platform;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * PagedRecursiveTreeItem is a root RecursiveTreeItem that loads its rows from a
+ * {@link PagedDataProvider}. the row values are only fetched for the pages that are
+ * rendered by the table, the next page in the scroll direction is loaded in the background
+ * and only the most recently used pages are kept in memory, the pages that are rendered
+ * are never unloaded.
+ * <p>
+ * every row has its own tree item, its value is null until its page is loaded. the tree 
+ * item is kept (without its value) when the page is unloaded, so the selection of the row 
+ * is preserved.
+ * <p>
+ * <b>Note:</b> sorting and filtering are delegated to the data provider, a {@link ColumnFilter}
+ * predicate is passed as criteria the provider can translate into a query. grouping is not supported
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+public class PagedRecursiveTreeItem<T extends RecursiveTreeObject<T>> extends RecursiveTreeItem<T> {
+
+	private static final int DEFAULT_PAGE_SIZE = 100;
+	private static final int DEFAULT_CACHED_PAGES = 10;
+
+	private final PagedDataProvider<T> provider;
+	private final int pageSize;
+	private final int cachedPages;
+
+	/*
+	 * loaded pages in access order, the least recently used page that is not
+	 * rendered is unloaded when the cache is full. only accessed from the FX thread
+	 */
+	private final Map<Integer, Boolean> loadedPages = new LinkedHashMap<>(16, 0.75f, true);
+	private final Set<Integer> pendingPages = new HashSet<>();
+	/*
+	 * the page rendered by every table row, the rows are weakly referenced
+	 * as the table doesn't release the rows it discards
+	 */
+	private final Map<Object, Integer> renderedPages = new WeakHashMap<>();
+	private int lastPage = 0;
+
+	/*
+	 * incremented when the rows are invalidated (sort, filter, refresh),
+	 * pages fetched for an older generation are discarded
+	 */
+	private final AtomicLong generation = new AtomicLong();
+	private ScheduledThreadPoolExecutor loader;
+
+	/**
+	 * creates a paged tree item, the rows are loaded in pages of 100 rows
+	 *
+	 * @param provider of the rows
+	 */
+	public PagedRecursiveTreeItem(PagedDataProvider<T> provider) {
+		this(provider, DEFAULT_PAGE_SIZE, DEFAULT_CACHED_PAGES);
+	}
+
+	/**
+	 * creates a paged tree item
+	 *
+	 * @param provider of the rows
+	 * @param pageSize the number of rows fetched at once
+	 * @param cachedPages the number of pages kept in memory
+	 */
+	public PagedRecursiveTreeItem(PagedDataProvider<T> provider, int pageSize, int cachedPages) {
+		super(RecursiveTreeObject.childrenFactory());
+		this.provider = provider;
+		this.pageSize = Math.max(pageSize, 1);
+		this.cachedPages = Math.max(cachedPages, 2);
+		refresh();
+	}
+
+	/**
+	 * reloads the row count and the loaded pages from the data provider,
+	 * should be called when the provider data has changed
+	 */
+	public void refresh(){
+		loader().execute(()->{
+			int rowCount = provider.getRowCount();
+			Platform.runLater(()->reload(rowCount));
+		});
+	}
+
+	/**
+	 * @return the data provider of this item
+	 */
+	public PagedDataProvider<T> getProvider(){
+		return provider;
+	}
+
+	/**
+	 * sorts the rows using the data provider
+	 *
+	 * @param sortOrder the sort order of the table
+	 * @return false if the data provider doesn't support sorting
+	 */
+	boolean sort(List<TreeTableColumn<T, ?>> sortOrder){
+		if(!provider.isSortable()) return false;
+		final List<TreeTableColumn<T, ?>> order = new ArrayList<>(sortOrder);
+		loader().execute(()->{
+			provider.sort(order);
+			int rowCount = provider.getRowCount();
+			Platform.runLater(()->reload(rowCount));
+		});
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * the predicate is pushed down to the data provider, then the rows are reloaded.
+	 * it's ignored if the data provider doesn't support filtering. the reloaded rows 
+	 * are already sorted by the data provider
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	boolean filter(Predicate<TreeItem<T>> oldPredicate, Predicate<TreeItem<T>> newPredicate, BooleanSupplier cancelled, 
+			Function<TreeItem<T>, Comparator<TreeItem<T>>> sortOrder){
+		Future<?> result = loader().submit(()->{
+			if(cancelled.getAsBoolean()) return;
+			if(provider.isFilterable()){
+				if(newPredicate instanceof ColumnFilter) provider.filter((ColumnFilter<T>) newPredicate);
+				else provider.filter(newPredicate);
+			}
+			int rowCount = provider.getRowCount();
+			Platform.runLater(()->{
+				if(cancelled.getAsBoolean()) return;
+				reload(rowCount);
+				setPushedPredicate(newPredicate);
+			});
+		});
+		// wait for the provider when called from a background thread (i.e. the table filter)
+		if(!Platform.isFxApplicationThread()){
+			try {
+				result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (ExecutionException e) {
+				e.printStackTrace();
+				return false;
+			}
+		}
+		return !cancelled.getAsBoolean();
+	}
+
+	/*
+	 * updates the rows to the new row count and fetches the pages that were
+	 * loaded / being loaded again, the old values are shown until then
+	 */
+	private void reload(int rowCount){
+		generation.incrementAndGet();
+		Set<Integer> pages = new LinkedHashSet<>(loadedPages.keySet());
+		pages.addAll(pendingPages);
+		pendingPages.clear();
+		loadedPages.clear();
+
+		int size = originalItems.size();
+		if(rowCount < size){
+			getChildren().subList(rowCount, size).clear();
+			filteredItems.subList(rowCount, size).clear();
+			originalItems.subList(rowCount, size).clear();
+		}else if(rowCount > size){
+			// the rows get their values once their page is loaded
+			List<TreeItem<T>> rows = new ArrayList<>(rowCount - size);
+			for (int i = size; i < rowCount; i++) rows.add(new PagedRow<>(null));
+			addItems(rows);
+		}
+		for (Integer page : pages) requestPage(page);
+	}
+
+	/**
+	 * called when a table row renders a row of this item, the page of the row is
+	 * loaded if needed and kept in memory while it's rendered
+	 *
+	 * @param tableRow the table row
+	 * @param index of the rendered row
+	 */
+	void render(Object tableRow, int index){
+		if(index < 0 || index >= originalItems.size()){
+			release(tableRow);
+			return;
+		}
+		renderedPages.put(tableRow, index / pageSize);
+		load(index);
+	}
+
+	/**
+	 * called when a table row no longer renders a row of this item
+	 *
+	 * @param tableRow the table row
+	 */
+	void release(Object tableRow){
+		renderedPages.remove(tableRow);
+	}
+
+	/*
+	 * loads the page of the row and the next page in the scroll direction
+	 */
+	private void load(int index){
+		int page = index / pageSize;
+		int direction = page < lastPage ? -1 : 1;
+		lastPage = page;
+		requestPage(page);
+		requestPage(page + direction);
+	}
+
+	private void requestPage(int page){
+		final int from = page * pageSize;
+		if(page < 0 || from >= originalItems.size()) return;
+		// get also marks the page as recently used
+		if(loadedPages.get(page) != null || pendingPages.contains(page)) return;
+		pendingPages.add(page);
+
+		final int to = Math.min(from + pageSize, originalItems.size());
+		final long pageGeneration = generation.get();
+		loader().execute(()->{
+			if(generation.get() != pageGeneration) return;
+			List<T> fetched = null;
+			try{
+				fetched = provider.fetch(from, to);
+			}catch(Exception e){
+				e.printStackTrace();
+			}
+			final List<T> values = fetched;
+			Platform.runLater(()->{
+				if(generation.get() != pageGeneration) return;
+				pendingPages.remove(page);
+				// the page is requested again when rendered
+				if(values == null) return;
+				setValues(from, values.subList(0, Math.min(values.size(), to - from)));
+				loadedPages.put(page, Boolean.TRUE);
+				unloadPages();
+			});
+		});
+	}
+
+	/*
+	 * sets the values of the rows of a loaded page
+	 */
+	private void setValues(int from, List<T> values){
+		for (int i = 0; i < values.size(); i++) originalItems.get(from + i).setValue(values.get(i));
+	}
+
+	/*
+	 * unloads the least recently used pages that are not rendered, until the cache size is reached
+	 */
+	private void unloadPages(){
+		if(loadedPages.size() <= cachedPages) return;
+		Set<Integer> rendered = new HashSet<>(renderedPages.values());
+		Iterator<Integer> pages = loadedPages.keySet().iterator();
+		while(loadedPages.size() > cachedPages && pages.hasNext()){
+			int page = pages.next();
+			if(rendered.contains(page)) continue;
+			pages.remove();
+			int from = page * pageSize;
+			int to = Math.min(from + pageSize, originalItems.size());
+			for (int i = from; i < to; i++) originalItems.get(i).setValue(null);
+		}
+	}
+
+	private synchronized ScheduledThreadPoolExecutor loader(){
+		if(loader == null) loader = JFXUtilities.createDaemonExecutor("PagedRecursiveTreeItem loader");
+		return loader;
+	}
+
+	/**
+	 * tree item of a row, its value is null while its page is not loaded
+	 */
+	static final class PagedRow<T> extends TreeItem<T> {
+
+		PagedRow(T value){
+			super(value);
+		}
+
+		@Override
+		public boolean isLeaf() {
+			return true;
+		}
+	}
+
+}
@@ -18,18 +18,40 @@
  */
 package com.jfoenix.controls;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.jfoenix.concurrency.JFXUtilities;
 import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
 
-import javafx.beans.binding.Bindings;
+import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.scene.Node;
 import javafx.scene.control.TreeItem;
 import javafx.util.Callback;
@@ -37,6 +59,12 @@ import javafx.util.Callback;
 /**
  * RecursiveTreeItem is used along with RecursiveTreeObject
  * to build the data model for the TreeTableView.
+ * <p>
+ * with the default children factory ({@link RecursiveTreeObject#childrenFactory()}),
+ * the children list of a value that has none yet (see {@link RecursiveTreeObject#hasChildrenList()})
+ * isn't created, it's observed once created and the children of the tree item are 
+ * requested. so the data rows without children don't allocate a list and a listener.
+ * other children factories are always called.
  * 
  * @author  Shadi Shaheen
  * @version 1.0
@@ -57,9 +85,49 @@ public class RecursiveTreeItem<T extends RecursiveTreeObject<T>> extends TreeIte
 	ObservableList<TreeItem<T>> originalItems = FXCollections.observableArrayList();
 
 	/**
-	 * list of filtered items
+	 * list of filtered items (the items that passed the last filter run, in original order)
 	 */
-	FilteredList<TreeItem<T>> filteredItems ;
+	List<TreeItem<T>> filteredItems = new ArrayList<>();
+
+	/**
+	 * set while the predicate is pushed down by the parent item, the parent
+	 * already filters the whole sub tree in the same pass
+	 */
+	private boolean filtering = false;
+
+	/**
+	 * whether or not the children are created on demand (first expansion, 
+	 * {@link #getChildren()} call or filtering) instead of in the constructor
+	 */
+	private boolean lazy = false;
+	private boolean materialized = false;
+	/*
+	 * whether or not the children source list is observed
+	 */
+	private boolean sourceObserved = false;
+	/*
+	 * set during a batch update, the changes of the children source 
+	 * are applied at once when the update ends
+	 */
+	private boolean updating = false;
+	private boolean outdated = false;
+	/*
+	 * the object used to retrieve the children of this item
+	 */
+	private RecursiveTreeObject<T> childrenSource;
+
+	/**
+	 * predicate that can tell whether it only narrows a previous predicate,
+	 * i.e. every item it accepts was also accepted by the previous one.
+	 * In that case only the currently visible items are re-tested.
+	 */
+	public interface NarrowingPredicate<T> extends Predicate<TreeItem<T>> {
+		/**
+		 * @param previous the predicate that was applied before this one
+		 * @return true if this predicate accepts a subset of what previous accepts
+		 */
+		boolean narrows(Predicate<TreeItem<T>> previous);
+	}
 
 	/***************************************************************************
 	 *                                                                         *
@@ -94,8 +162,21 @@ public class RecursiveTreeItem<T extends RecursiveTreeObject<T>> extends TreeIte
 	 * @param func is the callback used to retrive the children of the current tree item
 	 */
 	public RecursiveTreeItem(final T value, Node graphic, Callback<RecursiveTreeObject<T>, ObservableList<T>> func) {
+		this(value, graphic, func, false);
+	}
+
+	/**
+	 * creates recursive tree item for a specified value and a grpahic node
+	 * 
+	 * @param value of the tree item
+	 * @param graphic
+	 * @param func is the callback used to retrive the children of the current tree item
+	 * @param lazy if true the children tree items are only created when they are needed
+	 */
+	public RecursiveTreeItem(final T value, Node graphic, Callback<RecursiveTreeObject<T>, ObservableList<T>> func, boolean lazy) {
 		super(value, graphic);
 		this.childrenFactory = func;
+		this.lazy = lazy;
 		init(value);
 	}
 
@@ -106,100 +187,885 @@ public class RecursiveTreeItem<T extends RecursiveTreeObject<T>> extends TreeIte
 	 * @param func is the callback used to retrive the children of the current tree item
 	 */
 	public RecursiveTreeItem(ObservableList<T> dataList, Callback<RecursiveTreeObject<T>, ObservableList<T>> func) {
+		this(dataList, func, false);
+	}
+
+	/**
+	 * creates recursive tree item from a data list
+	 * 
+	 * @param dataList of values
+	 * @param func is the callback used to retrive the children of the current tree item
+	 * @param lazy if true the children tree items are only created when they are needed
+	 */
+	public RecursiveTreeItem(ObservableList<T> dataList, Callback<RecursiveTreeObject<T>, ObservableList<T>> func, boolean lazy) {
 		RecursiveTreeObject<T> root = new RecursiveTreeObject<>();
 		root.getChildren().addAll(dataList);
 
 		this.childrenFactory = func;
+		this.lazy = lazy;
 		init(root);
 	}
 
 	private void init(RecursiveTreeObject<T> value){
-
-		if (value != null) {
+		childrenSource = value;
+		if (value != null && !lazy) {
+			materialized = true;
 			addChildrenListener(value);
 		}
 		valueProperty().addListener((o, oldValue, newValue) -> {
 			if (newValue != null) {
-				addChildrenListener(newValue);
+				childrenSource = newValue;
+				if(materialized || !lazy){
+					materialized = true;
+					addChildrenListener(newValue);
+				}
 			}
 		});
 
-		this.filteredItems.predicateProperty().bind(Bindings.createObjectBinding(() -> {
-			Predicate<TreeItem<T>> newPredicate = new Predicate<TreeItem<T>>() {
-				@Override
-				public boolean test(TreeItem<T> child) {
-					// Set the predicate of child items to force filtering
-					if (child instanceof RecursiveTreeItem) {
-						if(!((RecursiveTreeItem)child).originalItems.isEmpty()){
-							RecursiveTreeItem<T> filterableChild = (RecursiveTreeItem<T>) child;
-							filterableChild.setPredicate(RecursiveTreeItem.this.predicate.get());
-						}
-					}
-					// If there is no predicate, keep this tree item
-					if (RecursiveTreeItem.this.predicate.get() == null)
-						return true;
-					// If there are children, keep this tree item
-					if (child.getChildren().size() > 0)
-						return true;
-					// If its a group node keep this item if it has children
-					if (child.getValue() instanceof RecursiveTreeObject && child.getValue().getClass() == RecursiveTreeObject.class){
-						if(child.getChildren().size() == 0)
-							return false;
-						return true;
-					}
-					// Otherwise ask the TreeItemPredicate
-					return RecursiveTreeItem.this.predicate.get().test(child);
-				}
-			};
-			return newPredicate;
-		}, this.predicate));
+		this.predicate.addListener((o,oldVal,newVal)->{
+			// the parent item is already filtering this sub tree
+			if(filtering) return;
+			filter(oldVal, newVal, ()->false, null);
+		});
+	}
 
+	/**
+	 * sets the predicate and filters the whole sub tree in the calling thread, 
+	 * the filtering stops as soon as the cancelled supplier returns true
+	 * 
+	 * @param newPredicate the predicate to be applied
+	 * @param cancelled checked while filtering, and once more before applying the result 
+	 * @param sortOrder returns the comparator the children of an item are sorted with (null 
+	 * if not sorted), it's called on the FX thread. the newly visible children of sorted items 
+	 * are inserted in sort order instead of source order. can be null
+	 * @return true if the result was applied, false if the filtering was cancelled
+	 */
+	boolean applyPredicate(Predicate<TreeItem<T>> newPredicate, BooleanSupplier cancelled, 
+			Function<TreeItem<T>, Comparator<TreeItem<T>>> sortOrder){
+		return filter(getPredicate(), newPredicate, cancelled, sortOrder);
+	}
 
-		this.filteredItems.predicateProperty().addListener((o,oldVal,newVal)->{
-			JFXUtilities.runInFXAndWait(()->{
-				getChildren().clear();
-				getChildren().addAll(filteredItems);
-			});
+	boolean filter(Predicate<TreeItem<T>> oldPredicate, Predicate<TreeItem<T>> newPredicate, BooleanSupplier cancelled, 
+			Function<TreeItem<T>, Comparator<TreeItem<T>>> sortOrder){
+		boolean narrowing = newPredicate instanceof NarrowingPredicate && ((NarrowingPredicate<T>)newPredicate).narrows(oldPredicate);
+		// the items are copied on the FX thread, as they can change while filtering
+		final Map<RecursiveTreeItem<T>, Snapshot<T>> snapshots = new IdentityHashMap<>();
+		JFXUtilities.runInFXAndWait(()->snapshot(snapshots));
+		// compute the new visible items of the whole sub tree in the calling thread
+		List<Runnable> updates = new ArrayList<>();
+		// the children of lazy items are created later, filtered by the pushed predicate
+		if(snapshots.containsKey(this)){
+			try{
+				filter(newPredicate, narrowing, updates, cancelled, snapshots, sortOrder);
+			}catch(CancellationException e){
+				return false;
+			}
+		}
+		updates.add(()->setPushedPredicate(newPredicate));
+		// then apply the minimal changes in one pass on the FX thread
+		final boolean[] applied = {false};
+		JFXUtilities.runInFXAndWait(()->{
+			if(cancelled.getAsBoolean()) return;
+			for(Runnable update : updates) update.run();
+			applied[0] = true;
 		});
+		return applied[0];
+	}
+
+	/*
+	 * the items of a level copied on the FX thread, to be filtered in the background
+	 */
+	private static final class Snapshot<T> {
+		final List<TreeItem<T>> originalItems;
+		final List<TreeItem<T>> filteredItems;
+
+		Snapshot(List<TreeItem<T>> originalItems, List<TreeItem<T>> filteredItems) {
+			this.originalItems = new ArrayList<>(originalItems);
+			this.filteredItems = new ArrayList<>(filteredItems);
+		}
+	}
+
+	/*
+	 * copies the items of every level of the sub tree whose children are created
+	 */
+	private void snapshot(Map<RecursiveTreeItem<T>, Snapshot<T>> snapshots){
+		if(!isMaterialized()) return;
+		snapshots.put(this, new Snapshot<>(originalItems, filteredItems));
+		for (TreeItem<T> child : originalItems)
+			if(child instanceof RecursiveTreeItem) ((RecursiveTreeItem<T>) child).snapshot(snapshots);
+	}
+
+	/*
+	 * filters this level and all its sub levels, the changes are collected in 
+	 * updates (deepest levels first) to be applied later on the FX thread.
+	 * if the predicate is narrowing, only the currently visible items are tested.
+	 * returns the number of visible items
+	 */
+	private int filter(Predicate<TreeItem<T>> predicate, boolean narrowing, List<Runnable> updates, BooleanSupplier cancelled, 
+			Map<RecursiveTreeItem<T>, Snapshot<T>> snapshots, Function<TreeItem<T>, Comparator<TreeItem<T>>> sortOrder){
+		final Snapshot<T> snapshot = snapshots.get(this);
+		List<TreeItem<T>> candidates = narrowing ? snapshot.filteredItems : snapshot.originalItems;
+		List<TreeItem<T>> visibleItems = new ArrayList<>(candidates.size());
+		for (TreeItem<T> child : candidates) {
+			if(cancelled.getAsBoolean()) throw new CancellationException();
+			boolean visibleChildren;
+			if(child instanceof RecursiveTreeItem){
+				// the children of lazy items are created on the FX thread, filtered by the pushed predicate
+				RecursiveTreeItem<T> filterableChild = (RecursiveTreeItem<T>) child;
+				Snapshot<T> childSnapshot = snapshots.get(filterableChild);
+				if(childSnapshot == null){
+					visibleChildren = filterableChild.hasVisibleChildren(predicate);
+					updates.add(()->{
+						// created meanwhile, using the previous predicate
+						if(filterableChild.isMaterialized()) filterableChild.filter(filterableChild.getPredicate(), predicate, ()->false, sortOrder);
+						else filterableChild.setPushedPredicate(predicate);
+					});
+				}else if(!childSnapshot.originalItems.isEmpty()){
+					visibleChildren = filterableChild.filter(predicate, narrowing, updates, cancelled, snapshots, sortOrder) > 0;
+					updates.add(()->filterableChild.setPushedPredicate(predicate));
+				}else{
+					visibleChildren = false;
+				}
+			}else{
+				visibleChildren = !child.isLeaf() && !child.getChildren().isEmpty();
+			}
+			if(accept(child, predicate, visibleChildren))
+				visibleItems.add(child);
+		}
+		updates.add(()->{
+			// the items changed since the snapshot are filtered again
+			filteredItems = sameItems(originalItems, snapshot.originalItems) ? visibleItems 
+					: reconcile(snapshot.originalItems, visibleItems, predicate);
+			applyDiff(getChildren(), filteredItems, sortOrder == null ? null : sortOrder.apply(this));
+		});
+		return visibleItems.size();
+	}
+
+	private static <E> boolean sameItems(List<E> list, List<E> snapshot){
+		if(list.size() != snapshot.size()) return false;
+		for (int i = 0; i < list.size(); i++)
+			if(list.get(i) != snapshot.get(i)) return false;
+		return true;
+	}
+
+	/*
+	 * the visible items of the current original items, the items that were not 
+	 * in the snapshot are tested on the FX thread
+	 */
+	private List<TreeItem<T>> reconcile(List<TreeItem<T>> snapshotItems, List<TreeItem<T>> visibleItems, Predicate<TreeItem<T>> predicate){
+		Map<TreeItem<T>, Boolean> filtered = new IdentityHashMap<>(snapshotItems.size());
+		for (TreeItem<T> item : snapshotItems) filtered.put(item, Boolean.FALSE);
+		for (TreeItem<T> item : visibleItems) filtered.put(item, Boolean.TRUE);
+		List<TreeItem<T>> items = new ArrayList<>(originalItems.size());
+		for (TreeItem<T> item : originalItems) {
+			Boolean visible = filtered.get(item);
+			if(visible == null ? accept(item, predicate) : visible) items.add(item);
+		}
+		return items;
+	}
+
+	/*
+	 * sets the predicate without filtering again, used once the sub tree is already filtered
+	 */
+	void setPushedPredicate(Predicate<TreeItem<T>> newPredicate){
+		filtering = true;
+		setPredicate(newPredicate);
+		filtering = false;
+	}
+
+	/*
+	 * tests an item that isn't filtered yet, its visible children are looked up 
+	 * without creating the children of lazy items
+	 */
+	private boolean accept(TreeItem<T> child, Predicate<TreeItem<T>> predicate){
+		boolean visibleChildren;
+		if(child instanceof RecursiveTreeItem) visibleChildren = ((RecursiveTreeItem<T>) child).hasVisibleChildren(predicate);
+		else visibleChildren = !child.isLeaf() && !child.getChildren().isEmpty();
+		return accept(child, predicate, visibleChildren);
+	}
+
+	private boolean accept(TreeItem<T> child, Predicate<TreeItem<T>> predicate, boolean visibleChildren){
+		// If there is no predicate, keep this tree item
+		if (predicate == null)
+			return true;
+		// If there are children, keep this tree item
+		if (visibleChildren)
+			return true;
+		// If its a group node without children, remove it
+		if (RecursiveTreeObject.isGroupRow(child.getValue()))
+			return false;
+		// Otherwise ask the TreeItemPredicate
+		return predicate.test(child);
+	}
+
+	/*
+	 * diffs the current children against the new visible items and replaces the 
+	 * children with a single change, the current order of the children (e.g. after 
+	 * sorting) is kept for the items that stay visible
+	 */
+	private void updateChildren(List<TreeItem<T>> visibleItems){
+		List<TreeItem<T>> children = new ArrayList<>(getChildren());
+		applyDiff(children, visibleItems, null);
+		if(!sameItems(getChildren(), children)) getChildren().setAll(children);
 	}
 
+	/*
+	 * removes the items of the list that are not in the target list, then inserts 
+	 * the missing target items as runs, each run before the next target item 
+	 * that is already in the list. if the list is sorted (order isn't null), the 
+	 * missing items are inserted at their sort position instead
+	 */
+	private static <E> void applyDiff(List<E> list, List<E> target, Comparator<? super E> order){
+		Map<E, Boolean> visible = new IdentityHashMap<>(target.size());
+		for (E item : target) visible.put(item, Boolean.TRUE);
+
+		// remove hidden items as contiguous ranges
+		removeRanges(list, visible, false);
+
+		// locate the items that are still shown
+		Map<E, Integer> shownIndex = new IdentityHashMap<>(list.size());
+		for (int i = 0; i < list.size(); i++) shownIndex.put(list.get(i), i);
+		if(shownIndex.size() == target.size()) return;
+
+		List<Integer> positions = new ArrayList<>();
+		List<List<E>> runs = new ArrayList<>();
+		if(order != null){
+			// the sorted newly visible items are grouped by insertion position
+			List<E> addedItems = new ArrayList<>(target.size() - shownIndex.size());
+			for (E item : target) if(!shownIndex.containsKey(item)) addedItems.add(item);
+			addedItems.sort(order);
+			for (E item : addedItems) {
+				int position = upperBound(list, item, order);
+				if(positions.isEmpty() || positions.get(positions.size() - 1) != position){
+					positions.add(position);
+					runs.add(new ArrayList<>());
+				}
+				runs.get(runs.size() - 1).add(item);
+			}
+		}else{
+			// group the newly visible items into runs, each run is inserted before
+			// the next item (in original order) that is already shown
+			List<E> run = new ArrayList<>();
+			for (E item : target) {
+				Integer index = shownIndex.get(item);
+				if(index == null){
+					run.add(item);
+				}else if(!run.isEmpty()){
+					positions.add(index);
+					runs.add(run);
+					run = new ArrayList<>();
+				}
+			}
+			if(!run.isEmpty()){
+				positions.add(list.size());
+				runs.add(run);
+			}
+		}
+
+		// insert from the highest position so earlier insertions don't shift later ones
+		List<Integer> insertions = new ArrayList<>(runs.size());
+		for (int i = 0; i < runs.size(); i++) insertions.add(i);
+		Collections.sort(insertions, (a, b) -> positions.get(b) - positions.get(a));
+		for (int i : insertions) list.addAll(positions.get(i), runs.get(i));
+	}
+
+	/*
+	 * the index after the items of the sorted list that are not greater than the item
+	 */
+	private static <E> int upperBound(List<E> list, E item, Comparator<? super E> order){
+		int low = 0, high = list.size();
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(order.compare(list.get(middle), item) <= 0) low = middle + 1;
+			else high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * creates the tree item of a child value, by default a RecursiveTreeItem that
+	 * shows the children of the value. it can be overridden to use lighter tree items
+	 * for rows that have no children
+	 * <p>
+	 * <b>Note:</b> it's called from background threads while loading the rows
+	 * (see {@link #loadAll(Stream)}), and from the constructor of non lazy items
+	 *
+	 * @param value of the child
+	 * @return the tree item of the value
+	 */
+	protected TreeItem<T> createChildItem(T value){
+		RecursiveTreeItem<T> item = new RecursiveTreeItem<>(value, getGraphic(), childrenFactory, lazy);
+		// the children of lazy items are filtered once created, by the predicate of their parent
+		Predicate<TreeItem<T>> currentPredicate = getPredicate();
+		if(currentPredicate != null && !item.isMaterialized()) item.setPushedPredicate(currentPredicate);
+		return item;
+	}
 
 	private void addChildrenListener(RecursiveTreeObject<T> value) {
-		final ObservableList<T> children = childrenFactory.call(value);
+		// data rows usually have no children, their children list isn't created
+		final ObservableList<T> children = sourceChildren(value);
+		sourceObserved = children != null;
+		if(children == null) return;
 		originalItems = FXCollections.observableArrayList();
 		for(T child : children)
-			originalItems.add(new RecursiveTreeItem<>(child, getGraphic(), childrenFactory));
+			originalItems.add(createChildItem(child));
 
-		filteredItems = new FilteredList<>(originalItems, (TreeItem<T> t) -> true);
+		// lazy items may be created after a predicate was pushed to them
+		Predicate<TreeItem<T>> currentPredicate = getPredicate();
+		filteredItems = new ArrayList<>(originalItems.size());
+		for (TreeItem<T> item : originalItems)
+			if(accept(item, currentPredicate)) filteredItems.add(item);
 
-		this.getChildren().addAll(originalItems);
+		super.getChildren().addAll(filteredItems);
 
+		// originalItems mirrors the children list index by index, so the
+		// tree items of a change are located directly from its indices
 		children.addListener((ListChangeListener<T>) change -> {
-			while (change.next()) {
-				if (change.wasAdded()) {
-					change.getAddedSubList().forEach(t -> {
-						RecursiveTreeItem<T> newItem = new RecursiveTreeItem<>(t, getGraphic(), childrenFactory);
-						RecursiveTreeItem.this.getChildren().add(newItem);
-						originalItems.add(newItem);
-					});
+			// batch update, the source is synchronized once the update ends
+			if(updating){
+				outdated = true;
+				return;
+			}
+			mirror(change);
+		});
+
+	}
+
+	/*
+	 * applies a change of the children source to the original items, then updates the 
+	 * filtered items and the children with one pass per list for the whole change
+	 */
+	private void mirror(ListChangeListener.Change<? extends T> change){
+		// the tree items removed by this change, by value, so the values that are
+		// moved or replaced by themselves keep their tree item (and its expanded state)
+		Map<T, TreeItem<T>> removedItems = new IdentityHashMap<>();
+		Map<TreeItem<T>, Boolean> removed = new IdentityHashMap<>();
+		// the added runs, sub changes are ordered so the runs indices stay valid
+		List<Integer> runsFrom = new ArrayList<>();
+		List<List<TreeItem<T>>> runs = new ArrayList<>();
+		while (change.next()) {
+			if (change.wasPermutated()) {
+				permute(change);
+				continue;
+			}
+			if (change.wasRemoved()) {
+				List<TreeItem<T>> range = originalItems.subList(change.getFrom(), change.getFrom() + change.getRemovedSize());
+				for (TreeItem<T> item : range) {
+					removedItems.put(item.getValue(), item);
+					removed.put(item, Boolean.TRUE);
 				}
-				if (change.wasRemoved()) {
-					change.getRemoved().forEach(t -> {
-						for(int i = 0 ; i < RecursiveTreeItem.this.getChildren().size(); i++){
-							if(this.getChildren().get(i).getValue().equals(t)){
-								this.getChildren().remove(i);
-								originalItems.remove(i);
-								i--;
-							}							
-						}
-						//						final List<TreeItem<T>> itemsToRemove = RecursiveTreeItem.this.getChildren().stream()
-						//								.filter(treeItem -> treeItem.getValue().equals(t)).collect(Collectors.toList());
-						//						RecursiveTreeItem.this.getChildren().removeAll(itemsToRemove);
-					});
+				range.clear();
+			}
+			if (change.wasAdded()) {
+				List<TreeItem<T>> newItems = new ArrayList<>(change.getAddedSize());
+				for (T t : change.getAddedSubList()) {
+					TreeItem<T> item = removedItems.remove(t);
+					newItems.add(item != null ? item : createChildItem(t));
 				}
+				originalItems.addAll(change.getFrom(), newItems);
+				runsFrom.add(change.getFrom());
+				runs.add(newItems);
 			}
+		}
+		if(!removed.isEmpty()){
+			removeRanges(getChildren(), removed, true);
+			removeRanges(filteredItems, removed, true);
+		}
+		if(!runs.isEmpty()) insertRuns(runsFrom, runs);
+	}
+
+	/*
+	 * reorders the original items as the children source, the filtered items and 
+	 * the children follow the new order
+	 */
+	private void permute(ListChangeListener.Change<? extends T> change){
+		Map<TreeItem<T>, Integer> newIndex = new IdentityHashMap<>(originalItems.size());
+		for (int i = 0; i < originalItems.size(); i++)
+			newIndex.put(originalItems.get(i), i < change.getFrom() || i >= change.getTo() ? i : change.getPermutation(i));
+		Comparator<TreeItem<T>> order = (a, b) -> Integer.compare(newIndex.get(a), newIndex.get(b));
+		FXCollections.sort(originalItems, order);
+		filteredItems.sort(order);
+		FXCollections.sort(getChildren(), order);
+	}
+
+	/*
+	 * inserts the visible items of the added runs after the preceding visible original item
+	 */
+	private void insertRuns(List<Integer> runsFrom, List<List<TreeItem<T>>> runs){
+		Predicate<TreeItem<T>> currentPredicate = getPredicate();
+		Map<TreeItem<T>, Boolean> visible = null;
+		for (int r = 0; r < runs.size(); r++) {
+			List<TreeItem<T>> visibleItems = new ArrayList<>(runs.get(r).size());
+			for (TreeItem<T> item : runs.get(r))
+				if(accept(item, currentPredicate))
+					visibleItems.add(item);
+			if(visibleItems.isEmpty()) continue;
+			int from = runsFrom.get(r);
+			if(from + runs.get(r).size() == originalItems.size()){
+				// appended, the common case
+				filteredItems.addAll(visibleItems);
+				getChildren().addAll(visibleItems);
+			}else{
+				if(visible == null){
+					visible = new IdentityHashMap<>(filteredItems.size());
+					for (TreeItem<T> item : filteredItems) visible.put(item, Boolean.TRUE);
+				}
+				TreeItem<T> previous = null;
+				for (int i = from - 1; i >= 0 && previous == null; i--)
+					if(visible.containsKey(originalItems.get(i))) previous = originalItems.get(i);
+				filteredItems.addAll(previous == null ? 0 : filteredItems.lastIndexOf(previous) + 1, visibleItems);
+				getChildren().addAll(previous == null ? 0 : getChildren().indexOf(previous) + 1, visibleItems);
+			}
+			if(visible != null) for (TreeItem<T> item : visibleItems) visible.put(item, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * replaces the children of this item with the rows of the stream. the stream is consumed 
+	 * and the tree items are created off the FX thread (in parallel chunks), then the 
+	 * children source and the children are replaced on the FX thread with a single change
+	 * 
+	 * @param rows the new children values
+	 * @return a future that completes once the new children are attached
+	 */
+	public CompletableFuture<Void> loadAll(Stream<T> rows){
+		return loadAll(() -> rows.collect(Collectors.toCollection(ArrayList::new)));
+	}
+
+	/**
+	 * @see #loadAll(Stream)
+	 * @param rows the new children values
+	 * @return a future that completes once the new children are attached
+	 */
+	public CompletableFuture<Void> loadAll(Spliterator<T> rows){
+		return loadAll(StreamSupport.stream(rows, false));
+	}
+
+	/**
+	 * @see #loadAll(Stream)
+	 * @param rows the new children values
+	 * @return a future that completes once the new children are attached
+	 */
+	public CompletableFuture<Void> loadAll(Iterator<T> rows){
+		return loadAll(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED));
+	}
+
+	private CompletableFuture<Void> loadAll(Supplier<List<T>> rowsSupplier){
+		if(childrenSource == null) throw new IllegalStateException("the tree item has no value to hold the children");
+		final Predicate<TreeItem<T>> currentPredicate = getPredicate();
+		return CompletableFuture.supplyAsync(()->{
+			List<T> rows = rowsSupplier.get();
+			TreeItem<T>[] items = new TreeItem[rows.size()];
+			boolean[] visible = new boolean[rows.size()];
+			ForkJoinPool.commonPool().invoke(new WrapTask<>(this, rows, currentPredicate, items, visible, 0, rows.size()));
+			return (Runnable) ()-> attach(rows, Arrays.asList(items), visible, currentPredicate);
+		}).thenAcceptAsync(Runnable::run, Platform::runLater);
+	}
+
+	/*
+	 * creates the tree items of a range of rows, and tests them with the predicate
+	 */
+	private static class WrapTask<T extends RecursiveTreeObject<T>> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private static final int CHUNK_SIZE = 4096;
+		private final RecursiveTreeItem<T> parent;
+		private final List<T> rows;
+		private final Predicate<TreeItem<T>> predicate;
+		private final TreeItem<T>[] items;
+		private final boolean[] visible;
+		private final int from, to;
+
+		WrapTask(RecursiveTreeItem<T> parent, List<T> rows, Predicate<TreeItem<T>> predicate, TreeItem<T>[] items, boolean[] visible, int from, int to) {
+			this.parent = parent;
+			this.rows = rows;
+			this.predicate = predicate;
+			this.items = items;
+			this.visible = visible;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from <= CHUNK_SIZE){
+				for (int i = from; i < to; i++) {
+					TreeItem<T> item = parent.createChildItem(rows.get(i));
+					items[i] = item;
+					visible[i] = parent.accept(item, predicate);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new WrapTask<>(parent, rows, predicate, items, visible, from, middle), 
+					new WrapTask<>(parent, rows, predicate, items, visible, middle, to));
+		}
+	}
+
+	private void attach(List<T> rows, List<TreeItem<T>> items, boolean[] visible, Predicate<TreeItem<T>> loadPredicate){
+		materialize();
+		changeSource(source -> source.setAll(rows));
+		originalItems.setAll(items);
+
+		// the predicate may have changed while loading
+		Predicate<TreeItem<T>> currentPredicate = getPredicate();
+		List<TreeItem<T>> visibleItems = new ArrayList<>(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			TreeItem<T> item = items.get(i);
+			if(currentPredicate == loadPredicate ? visible[i] : accept(item, currentPredicate))
+				visibleItems.add(item);
+		}
+		filteredItems = visibleItems;
+		getChildren().setAll(visibleItems);
+	}
+
+	/**
+	 * starts a batch update of the sub tree, the changes of the children sources 
+	 * are not applied until {@link #endUpdate()} is called
+	 */
+	void beginUpdate(){
+		updating = true;
+		for (TreeItem<T> item : originalItems)
+			if(item instanceof RecursiveTreeItem) ((RecursiveTreeItem<T>) item).beginUpdate();
+	}
+
+	/**
+	 * ends a batch update of the sub tree, every changed level is synchronized with 
+	 * its children source, then filtered again using a single change per list
+	 * 
+	 * @return true if the items of this level were updated
+	 */
+	boolean endUpdate(){
+		// the sub levels first, so the visible children of this level are known
+		boolean changed = outdated;
+		for (TreeItem<T> item : originalItems)
+			if(item instanceof RecursiveTreeItem) changed |= ((RecursiveTreeItem<T>) item).endUpdate();
+		updating = false;
+		outdated = false;
+		if(changed) synchronizeItems();
+		return changed;
+	}
+
+	private void synchronizeItems(){
+		if(!isMaterialized() || !sourceObserved) return;
+		// keep the tree items of the values that are still in the source
+		Map<T, TreeItem<T>> existingItems = new IdentityHashMap<>(originalItems.size());
+		for (TreeItem<T> item : originalItems) existingItems.put(item.getValue(), item);
+		ObservableList<T> source = childrenFactory.call(childrenSource);
+		List<TreeItem<T>> items = new ArrayList<>(source.size());
+		for (T t : source) {
+			TreeItem<T> item = existingItems.remove(t);
+			items.add(item != null ? item : createChildItem(t));
+		}
+		// a single change per list for the whole batch, the retained tree items keep their state
+		if(!sameItems(originalItems, items)) originalItems.setAll(items);
+
+		Predicate<TreeItem<T>> currentPredicate = getPredicate();
+		List<TreeItem<T>> visibleItems = new ArrayList<>(items.size());
+		for (TreeItem<T> item : items)
+			if(accept(item, currentPredicate))
+				visibleItems.add(item);
+		filteredItems = visibleItems;
+		updateChildren(visibleItems);
+	}
+
+	/*
+	 * applies a change to the children source without mirroring it, the caller 
+	 * changes the original items the same way so they keep mirroring the source
+	 */
+	private void changeSource(Consumer<ObservableList<T>> change){
+		if(childrenSource == null) return;
+		boolean wasUpdating = updating, wasOutdated = outdated;
+		updating = true;
+		try{
+			change.accept(getSourceChildren());
+		}finally{
+			updating = wasUpdating;
+			outdated = wasOutdated;
+		}
+	}
+
+	/**
+	 * appends existing items to this item (e.g. the items of a group), they are 
+	 * considered visible. their values are appended to the children source too
+	 * 
+	 * @param items to be added
+	 */
+	void addItems(List<TreeItem<T>> items){
+		List<T> values = new ArrayList<>(items.size());
+		for (TreeItem<T> item : items) values.add(item.getValue());
+		changeSource(source -> source.addAll(values));
+		originalItems.addAll(items);
+		filteredItems.addAll(items);
+		getChildren().addAll(items);
+	}
+
+	/**
+	 * adds existing items to this item at their position in the given order, the items 
+	 * of this level must already be in that order (e.g. the source order of the items of 
+	 * a group). they are considered visible, and their values are inserted in the children 
+	 * source at the same indices
+	 * 
+	 * @param items to be added
+	 * @param order of the items of this level
+	 */
+	void addItems(List<TreeItem<T>> items, Comparator<? super TreeItem<T>> order){
+		List<TreeItem<T>> sortedItems = new ArrayList<>(items);
+		sortedItems.sort(order);
+		insertSorted(originalItems, sortedItems, order, (position, run) -> {
+			List<T> values = new ArrayList<>(run.size());
+			for (TreeItem<T> item : run) values.add(item.getValue());
+			changeSource(source -> source.addAll(position, values));
 		});
+		insertSorted(filteredItems, sortedItems, order, null);
+		// the shown children may be sorted, they are inserted next to their visible neighbours
+		applyDiff(getChildren(), filteredItems, null);
+	}
 
+	/*
+	 * inserts the sorted items in the sorted list as runs, starting from the last run 
+	 * so the positions of the previous runs don't change
+	 */
+	private static <E> void insertSorted(List<E> list, List<E> sortedItems, Comparator<? super E> order, BiConsumer<Integer, List<E>> inserted){
+		for (int end = sortedItems.size(); end > 0;) {
+			int position = upperBound(list, sortedItems.get(end - 1), order);
+			int start = end - 1;
+			while(start > 0 && upperBound(list, sortedItems.get(start - 1), order) == position) start--;
+			List<E> run = new ArrayList<>(sortedItems.subList(start, end));
+			if(inserted != null) inserted.accept(position, run);
+			list.addAll(position, run);
+			end = start;
+		}
+	}
+
+	/**
+	 * removes the first items of this level and appends new values, the children source,
+	 * the original items and the children are changed with one range removal and one 
+	 * range addition each. the removed items are found at the start of the filtered items
+	 * and the children, only sorted children are scanned entirely
+	 * 
+	 * @param values to be appended
+	 * @param removedCount the number of items removed from the start
+	 */
+	void appendItems(List<T> values, int removedCount){
+		materialize();
+		removedCount = Math.min(removedCount, originalItems.size());
+		List<TreeItem<T>> items = new ArrayList<>(values.size());
+		List<TreeItem<T>> visibleItems = new ArrayList<>(values.size());
+		Predicate<TreeItem<T>> currentPredicate = getPredicate();
+		for (T value : values) {
+			TreeItem<T> item = createChildItem(value);
+			items.add(item);
+			if(accept(item, currentPredicate))
+				visibleItems.add(item);
+		}
+		final int removedValues = removedCount;
+		changeSource(source -> {
+			source.remove(0, Math.min(removedValues, source.size()));
+			source.addAll(values);
+		});
+		if(removedCount > 0){
+			List<TreeItem<T>> removedItems = originalItems.subList(0, removedCount);
+			Map<TreeItem<T>, Boolean> removed = new IdentityHashMap<>(removedCount);
+			for (TreeItem<T> item : removedItems) removed.put(item, Boolean.TRUE);
+			// the oldest items are a prefix of the filtered items, and of the children unless they are sorted
+			int visibleCount = countPrefix(filteredItems, removed);
+			if(countPrefix(getChildren(), removed) != visibleCount) removeRanges(getChildren(), removed, true);
+			else if(visibleCount > 0) getChildren().remove(0, visibleCount);
+			filteredItems.subList(0, visibleCount).clear();
+			removedItems.clear();
+		}
+		originalItems.addAll(items);
+		filteredItems.addAll(visibleItems);
+		getChildren().addAll(visibleItems);
+	}
+
+	/**
+	 * removes items from this item, contiguous items are removed as one range.
+	 * their values are removed from the children source at the same indices
+	 * 
+	 * @param items identity set of the items to be removed
+	 */
+	void removeItems(Map<TreeItem<T>, Boolean> items){
+		removeRanges(getChildren(), items, true);
+		removeRanges(filteredItems, items, true);
+		if(childrenSource == null) removeRanges(originalItems, items, true);
+		else changeSource(source -> removeRanges(originalItems, items, true, source));
+	}
+
+	/*
+	 * number of leading items of the list contained in the identity set
+	 */
+	private static <E> int countPrefix(List<E> list, Map<E, Boolean> items){
+		int count = 0;
+		while(count < list.size() && items.containsKey(list.get(count))) count++;
+		return count;
+	}
+
+	/*
+	 * removes the items of the list that are (or are not, if inSet is false) contained 
+	 * in the identity set, contiguous items are removed as one range
+	 */
+	private static <E> void removeRanges(List<E> list, Map<E, Boolean> items, boolean inSet){
+		removeRanges(list, items, inSet, null);
+	}
+
+	/*
+	 * removes the ranges from the mirrored list too, if any
+	 */
+	private static <E> void removeRanges(List<E> list, Map<E, Boolean> items, boolean inSet, List<?> mirrored){
+		int end = list.size();
+		for (int i = list.size() - 1; i >= -1; i--) {
+			if(i >= 0 && items.containsKey(list.get(i)) == inSet) continue;
+			// a sub list clear is a single range change for observable lists
+			if(i + 1 < end){
+				list.subList(i + 1, end).clear();
+				if(mirrored != null) mirrored.subList(i + 1, end).clear();
+			}
+			end = i;
+		}
+	}
+
+	/*
+	 * creates the children tree items of a lazy item if not created yet, or of 
+	 * a value whose children list was created after this item
+	 */
+	private void materialize(){
+		if(lazy && !materialized && childrenSource != null){
+			materialized = true;
+			addChildrenListener(childrenSource);
+		}else if(hasUnobservedList()){
+			addChildrenListener(childrenSource);
+		}
+	}
+
+	/*
+	 * returns the children source, the children list of a value without one 
+	 * is created and observed
+	 */
+	private ObservableList<T> getSourceChildren(){
+		final ObservableList<T> children = childrenFactory.call(childrenSource);
+		if(!sourceObserved) addChildrenListener(childrenSource);
+		return children;
+	}
+
+	/*
+	 * returns the children of a source value, null if the value has no children list 
+	 * and the default factory would create it
+	 */
+	private ObservableList<T> sourceChildren(RecursiveTreeObject<T> source){
+		if(childrenFactory == RecursiveTreeObject.<T>childrenFactory() && !source.hasChildrenList()) return null;
+		return childrenFactory.call(source);
+	}
+
+	/*
+	 * true if the children list of the value was created after this item
+	 */
+	private boolean hasUnobservedList(){
+		return !sourceObserved && childrenSource != null && childrenFactory == RecursiveTreeObject.<T>childrenFactory() 
+				&& childrenSource.hasChildrenList();
+	}
+
+	/**
+	 * @return true if the children tree items are created, always true for non lazy items 
+	 * unless the children list of the value was created after the item
+	 */
+	boolean isMaterialized(){
+		return (!lazy || materialized) && !hasUnobservedList();
+	}
+
+	/**
+	 * @param predicate the predicate the children are tested with
+	 * @return true if a child is visible, lazy items that didn't create their children 
+	 * yet test the values of the children source (and their sub trees) with the predicate
+	 */
+	boolean hasVisibleChildren(Predicate<TreeItem<T>> predicate){
+		if(isMaterialized()) return !filteredItems.isEmpty();
+		return childrenSource != null && hasVisibleSourceChildren(childrenSource, predicate);
+	}
+
+	private boolean hasVisibleSourceChildren(RecursiveTreeObject<T> source, Predicate<TreeItem<T>> predicate){
+		ObservableList<T> children = sourceChildren(source);
+		if(children == null) return false;
+		for (T child : children)
+			if(acceptSource(child, predicate)) return true;
+		return false;
+	}
+
+	/*
+	 * tests a value of the children source as accept does, the value is wrapped 
+	 * in a plain tree item as it has no tree item yet
+	 */
+	private boolean acceptSource(T value, Predicate<TreeItem<T>> predicate){
+		if(predicate == null) return true;
+		if(!RecursiveTreeObject.isGroupRow(value) && predicate.test(new TreeItem<>(value))) return true;
+		return hasVisibleSourceChildren(value, predicate);
+	}
+
+	/**
+	 * walks the values of the children source that would be visible once the children 
+	 * are created, in tree order, without creating their tree items
+	 * 
+	 * @param visitor called with every visible value and its depth below this item, starting at 0
+	 */
+	void visitVisibleSource(ObjIntConsumer<T> visitor){
+		if(childrenSource != null) visitVisibleSource(childrenSource, getPredicate(), 0, visitor);
+	}
+
+	private void visitVisibleSource(RecursiveTreeObject<T> source, Predicate<TreeItem<T>> predicate, int depth, ObjIntConsumer<T> visitor){
+		ObservableList<T> children = sourceChildren(source);
+		if(children == null) return;
+		for (T child : children) {
+			if(!acceptSource(child, predicate)) continue;
+			visitor.accept(child, depth);
+			visitVisibleSource(child, predicate, depth + 1, visitor);
+		}
+	}
+
+	/**
+	 * counts the data objects below a lazy item from the children source, without 
+	 * creating their tree items. only the objects that would be visible with the 
+	 * predicate of this item are counted, as once its children are created
+	 * 
+	 * @return the number of visible descendants of this item
+	 */
+	int countVisibleSourceDescendants(){
+		return childrenSource == null ? 0 : countVisibleSourceDescendants(childrenSource, getPredicate());
+	}
+
+	private int countVisibleSourceDescendants(RecursiveTreeObject<T> source, Predicate<TreeItem<T>> predicate){
+		ObservableList<T> children = sourceChildren(source);
+		if(children == null) return 0;
+		int count = 0;
+		for (T child : children) {
+			int descendants = countVisibleSourceDescendants(child, predicate);
+			boolean groupRow = RecursiveTreeObject.isGroupRow(child);
+			// visible as decided by accept
+			if(predicate == null || descendants > 0 || (!groupRow && predicate.test(new TreeItem<>(child))))
+				count += (groupRow ? 0 : 1) + descendants;
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ObservableList<TreeItem<T>> getChildren() {
+		materialize();
+		return super.getChildren();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * lazy items answer it from the children source without creating the children tree items,
+	 * the source values that don't pass the predicate are not counted
+	 */
+	@Override
+	public boolean isLeaf() {
+		if(!isMaterialized())
+			return !hasVisibleChildren(getPredicate());
+		return super.isLeaf();
 	}
 
 	public final ObjectProperty<Predicate<TreeItem<T>>> predicateProperty() {
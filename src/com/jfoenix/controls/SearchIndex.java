@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * SearchIndex is a trigram index over the values of the search columns of
+ * {@link JFXTreeTableView}, it's used to answer substring queries from the
+ * posting lists of the query trigrams instead of scanning every item.
+ * <p>
+ * Items are identified by increasing ids, so every posting list is sorted.
+ * Removed items leave a tombstone, the ids are compacted once the tombstones
+ * outnumber the indexed items.
+ * <p>
+ * The index isn't thread safe, it's built, updated and queried on the table
+ * filter thread only. {@link #matches(TreeItem, String)} doesn't read the index,
+ * it can be called from any thread.
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+final class SearchIndex<S extends RecursiveTreeObject<S>> {
+
+	private static final int GRAM_LENGTH = 3;
+	/*
+	 * minimum number of tombstones before compacting the ids
+	 */
+	private static final int COMPACTION_THRESHOLD = 1024;
+
+	/*
+	 * the tree item whose items are indexed
+	 */
+	final RecursiveTreeItem<S> root;
+	/*
+	 * the indexed list, the root replaces it when its value changes
+	 */
+	final ObservableList<TreeItem<S>> source;
+	private final List<TreeTableColumn<S, ?>> columns;
+
+	private final Map<String, Postings> grams = new HashMap<>();
+	private final List<TreeItem<S>> items = new ArrayList<>();
+	private final Map<TreeItem<S>, Integer> ids = new IdentityHashMap<>();
+	private final BitSet removed = new BitSet();
+	private int removedCount = 0;
+
+	SearchIndex(RecursiveTreeItem<S> root, List<TreeTableColumn<S, ?>> columns) {
+		this.root = root;
+		this.source = root.originalItems;
+		this.columns = columns;
+	}
+
+	void add(List<? extends TreeItem<S>> newItems){
+		for (TreeItem<S> item : newItems) {
+			if(ids.containsKey(item)) continue;
+			final int id = items.size();
+			items.add(item);
+			ids.put(item, id);
+			for (TreeTableColumn<S, ?> column : columns) {
+				String text = getText(column, item);
+				if(text == null || text.isEmpty()) continue;
+				// short values are indexed as a whole
+				if(text.length() < GRAM_LENGTH) addPosting(text, id);
+				for (int i = 0; i + GRAM_LENGTH <= text.length(); i++)
+					addPosting(text.substring(i, i + GRAM_LENGTH), id);
+			}
+		}
+	}
+
+	private void addPosting(String gram, int id){
+		Postings postings = grams.get(gram);
+		if(postings == null) grams.put(gram, postings = new Postings());
+		postings.add(id);
+	}
+
+	void remove(List<? extends TreeItem<S>> oldItems){
+		for (TreeItem<S> item : oldItems) {
+			Integer id = ids.remove(item);
+			if(id == null) continue;
+			items.set(id, null);
+			removed.set(id);
+			removedCount++;
+		}
+		if(removedCount >= COMPACTION_THRESHOLD && removedCount > ids.size()) compact();
+	}
+
+	/*
+	 * drops the tombstones, the remaining items get consecutive ids in the same order,
+	 * so the posting lists stay sorted
+	 */
+	private void compact(){
+		int[] newIds = new int[items.size()];
+		int size = 0;
+		for (int id = 0; id < items.size(); id++) {
+			TreeItem<S> item = items.get(id);
+			if(item == null){
+				newIds[id] = -1;
+				continue;
+			}
+			newIds[id] = size;
+			items.set(size, item);
+			ids.put(item, size);
+			size++;
+		}
+		items.subList(size, items.size()).clear();
+		grams.values().removeIf(postings -> postings.remap(newIds) == 0);
+		removed.clear();
+		removedCount = 0;
+	}
+
+	/**
+	 * @param item tree item
+	 * @return true if the item is indexed
+	 */
+	boolean contains(TreeItem<S> item){
+		return ids.containsKey(item);
+	}
+
+	/**
+	 * @param query lower case query
+	 * @return identity set of the indexed items that contain the query in one of the search columns
+	 */
+	Map<TreeItem<S>, Boolean> search(String query){
+		Map<TreeItem<S>, Boolean> result = new IdentityHashMap<>();
+		if(query.length() < GRAM_LENGTH){
+			// every gram that contains the query belongs to an item that contains it
+			BitSet matches = new BitSet(items.size());
+			for (Map.Entry<String, Postings> entry : grams.entrySet())
+				if(entry.getKey().contains(query)) entry.getValue().addTo(matches);
+			matches.andNot(removed);
+			for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1))
+				result.put(items.get(id), Boolean.TRUE);
+			return result;
+		}
+
+		// intersect the posting lists, starting from the shortest
+		List<Postings> queryPostings = new ArrayList<>();
+		for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+			Postings postings = grams.get(query.substring(i, i + GRAM_LENGTH));
+			if(postings == null) return result;
+			queryPostings.add(postings);
+		}
+		queryPostings.sort((a, b) -> a.size - b.size);
+		int[] candidates = Arrays.copyOf(queryPostings.get(0).ids, queryPostings.get(0).size);
+		int size = candidates.length;
+		for (int i = 1; i < queryPostings.size() && size > 0; i++)
+			size = queryPostings.get(i).retain(candidates, size);
+
+		// the trigrams may appear apart from each other, so the candidates are verified
+		for (int i = 0; i < size; i++) {
+			if(removed.get(candidates[i])) continue;
+			TreeItem<S> item = items.get(candidates[i]);
+			if(matches(item, query)) result.put(item, Boolean.TRUE);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of ids in use, including the tombstones
+	 */
+	int capacity(){
+		return items.size();
+	}
+
+	/**
+	 * @param item tree item
+	 * @param query lower case query
+	 * @return true if one of the search columns values contains the query
+	 */
+	boolean matches(TreeItem<S> item, String query){
+		for (TreeTableColumn<S, ?> column : columns) {
+			String text = getText(column, item);
+			if(text != null && text.contains(query)) return true;
+		}
+		return false;
+	}
+
+	private static <S> String getText(TreeTableColumn<S, ?> column, TreeItem<S> item){
+		Object value = GroupTree.getKey(column, item);
+		return value == null ? null : value.toString().toLowerCase(Locale.ROOT);
+	}
+
+	/*
+	 * sorted list of item ids
+	 */
+	private static final class Postings {
+		private int[] ids = new int[2];
+		private int size = 0;
+
+		void add(int id){
+			// the grams of an item are added together, skip repeated grams
+			if(size > 0 && ids[size - 1] == id) return;
+			if(size == ids.length) ids = Arrays.copyOf(ids, size << 1);
+			ids[size++] = id;
+		}
+
+		/*
+		 * replaces the ids using the new ids array, removed ids are mapped to -1.
+		 * returns the new size
+		 */
+		int remap(int[] newIds){
+			int kept = 0;
+			for (int i = 0; i < size; i++)
+				if(newIds[ids[i]] != -1) ids[kept++] = newIds[ids[i]];
+			size = kept;
+			if(size < ids.length >> 2) ids = Arrays.copyOf(ids, Math.max(size, 2));
+			return size;
+		}
+
+		void addTo(BitSet set){
+			for (int i = 0; i < size; i++) set.set(ids[i]);
+		}
+
+		/*
+		 * keeps the candidates that are in this list, returns the new candidates size
+		 */
+		int retain(int[] candidates, int candidatesSize){
+			int kept = 0;
+			int j = 0;
+			for (int i = 0; i < candidatesSize; i++) {
+				int id = candidates[i];
+				while(j < size && ids[j] < id) j++;
+				if(j == size) break;
+				if(ids[j] == id) candidates[kept++] = id;
+			}
+			return kept;
+		}
+	}
+
+}
@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import com.jfoenix.concurrency.JFXUtilities;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.application.Platform;
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * TreeTableExporter writes the rows currently shown by a {@link JFXTreeTableView}, i.e. the
+ * filtered items and the group rows, to a channel as CSV, TSV or JSON lines.
+ * <p>
+ * the structure of the view is copied on the FX thread when the export starts, then the
+ * rows are written by a background task through a fixed size buffer, so the table can
+ * change while exporting. the cell values are read on the FX thread as well, in chunks
+ * of rows copied while the previous chunk is written, so the cell value factories don't
+ * need to be thread safe. group rows show the grouped value and optionally the aggregates
+ * of the columns, the rows of collapsed groups are exported as well. the children of lazy
+ * items that are not created yet are read from their children source, so exporting
+ * doesn't create the tree items of collapsed lazy sub trees.
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+public class TreeTableExporter<S extends RecursiveTreeObject<S>> {
+
+	public enum Format { CSV, TSV, JSON_LINES }
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int PROGRESS_STEP = 1024;
+	/*
+	 * number of rows whose values are copied at once on the FX thread
+	 */
+	private static final int CHUNK_SIZE = 512;
+
+	private final JFXTreeTableView<S> table;
+	private final Format format;
+	private boolean aggregatesExported = false;
+	private boolean headerExported = true;
+	private ScheduledThreadPoolExecutor executor;
+
+	/**
+	 * @param table the tree table view to export
+	 * @param format of the output
+	 */
+	public TreeTableExporter(JFXTreeTableView<S> table, Format format) {
+		this.table = table;
+		this.format = format;
+	}
+
+	/**
+	 * @param aggregatesExported whether or not the group rows include the aggregates of the columns
+	 */
+	public void setAggregatesExported(boolean aggregatesExported){
+		this.aggregatesExported = aggregatesExported;
+	}
+
+	public boolean isAggregatesExported(){
+		return aggregatesExported;
+	}
+
+	/**
+	 * @param headerExported whether or not the first CSV / TSV line holds the column names
+	 */
+	public void setHeaderExported(boolean headerExported){
+		this.headerExported = headerExported;
+	}
+
+	public boolean isHeaderExported(){
+		return headerExported;
+	}
+
+	/**
+	 * exports the view to a file, the file is created or replaced.
+	 * must be called on the FX thread
+	 *
+	 * @param path of the file
+	 * @return the running task, its value is the number of exported rows
+	 */
+	public Task<Long> export(Path path){
+		return start(snapshot(), () -> FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), true);
+	}
+
+	/**
+	 * exports the view to a channel, the channel is not closed.
+	 * must be called on the FX thread
+	 *
+	 * @param channel the output channel
+	 * @return the running task, its value is the number of exported rows
+	 */
+	public Task<Long> export(WritableByteChannel channel){
+		return start(snapshot(), () -> channel, false);
+	}
+
+	private interface ChannelSupplier {
+		WritableByteChannel open() throws IOException;
+	}
+
+	private Task<Long> start(Snapshot<S> snapshot, ChannelSupplier channelSupplier, boolean closeChannel){
+		ExportTask task = new ExportTask(snapshot, channelSupplier, closeChannel);
+		getExecutor().execute(task);
+		return task;
+	}
+
+	private final class ExportTask extends Task<Long> {
+		private final Snapshot<S> snapshot;
+		private final ChannelSupplier channelSupplier;
+		private final boolean closeChannel;
+
+		ExportTask(Snapshot<S> snapshot, ChannelSupplier channelSupplier, boolean closeChannel){
+			this.snapshot = snapshot;
+			this.channelSupplier = channelSupplier;
+			this.closeChannel = closeChannel;
+		}
+
+		@Override
+		protected Long call() throws Exception {
+			WritableByteChannel channel = channelSupplier.open();
+			try{
+				Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE);
+				long rows = write(snapshot, writer, this);
+				writer.flush();
+				return rows;
+			}finally{
+				if(closeChannel) channel.close();
+			}
+		}
+
+		void reportProgress(long rows){
+			updateProgress(rows, snapshot.size);
+		}
+	}
+
+	private synchronized ScheduledThreadPoolExecutor getExecutor(){
+		if(executor == null) executor = JFXUtilities.createDaemonExecutor("TreeTableExporter");
+		return executor;
+	}
+
+	/*
+	 * copies the columns, the shown tree items with their level and the group rows values
+	 */
+	private Snapshot<S> snapshot(){
+		if(!Platform.isFxApplicationThread()) throw new IllegalStateException("Not on FX application thread");
+		Snapshot<S> snapshot = new Snapshot<>(new ArrayList<>(table.getVisibleLeafColumns()));
+		TreeItem<S> root = table.getRoot();
+		if(root != null){
+			if(table.isShowRoot()) addItem(snapshot, root, 0);
+			else for (TreeItem<S> child : root.getChildren()) addItem(snapshot, child, 0);
+		}
+		return snapshot;
+	}
+
+	private void addItem(Snapshot<S> snapshot, TreeItem<S> item, int level){
+		addRow(snapshot, item, level);
+		if(item instanceof RecursiveTreeItem && !((RecursiveTreeItem<S>) item).isMaterialized()){
+			// the children of collapsed lazy items are not created, the visible values of their source are exported
+			((RecursiveTreeItem<S>) item).visitVisibleSource((value, depth) -> addRow(snapshot, new TreeItem<>(value), level + 1 + depth));
+			return;
+		}
+		for (TreeItem<S> child : item.getChildren()) addItem(snapshot, child, level + 1);
+	}
+
+	private void addRow(Snapshot<S> snapshot, TreeItem<S> item, int level){
+		snapshot.add(item, level);
+		if(RecursiveTreeObject.isGroupRow(item.getValue())) {
+			Object[] values = new Object[snapshot.columns.size()];
+			for (int i = 0; i < values.length; i++) {
+				TreeTableColumn<S, ?> column = snapshot.columns.get(i);
+				if(item.getValue().getGroupedColumn() == column) values[i] = item.getValue().getGroupedValue();
+				else if(aggregatesExported && column instanceof JFXTreeTableColumn && ((JFXTreeTableColumn<S, ?>) column).getAggregate() != null){
+					ObservableValue<Number> aggregate = table.getAggregateValue(item, (JFXTreeTableColumn<S, ?>) column);
+					values[i] = aggregate == null ? null : aggregate.getValue();
+				}
+			}
+			snapshot.groupValues.put(item, values);
+		}
+	}
+
+	private long write(Snapshot<S> snapshot, Writer writer, ExportTask task) throws IOException {
+		final int columnsCount = snapshot.columns.size();
+		String[] names = new String[columnsCount];
+		for (int i = 0; i < columnsCount; i++) names[i] = snapshot.columns.get(i).getText();
+		if(headerExported && format != Format.JSON_LINES) writeLine(writer, names);
+
+		// two chunks, one is written while the next one is copied
+		Object[][] chunk = new Object[Math.min(CHUNK_SIZE, snapshot.size)][columnsCount];
+		Object[][] nextChunk = new Object[chunk.length][columnsCount];
+		CompletableFuture<Void> copied = copyChunk(snapshot, 0, chunk);
+		long rows = 0;
+		for (int start = 0; start < snapshot.size && !task.isCancelled(); start += CHUNK_SIZE) {
+			copied.join();
+			int end = Math.min(start + CHUNK_SIZE, snapshot.size);
+			if(end < snapshot.size) copied = copyChunk(snapshot, end, nextChunk);
+			for (int index = start; index < end; index++) {
+				if(task.isCancelled()) break;
+				Object[] values = chunk[index - start];
+				boolean group = snapshot.groupValues.containsKey(snapshot.items.get(index));
+				if(format == Format.JSON_LINES) writeJson(writer, names, values, group, snapshot.levels[index]);
+				else writeLine(writer, values);
+				rows++;
+				// the task coalesces the progress updates sent to the FX thread
+				if(rows % PROGRESS_STEP == 0) task.reportProgress(rows);
+			}
+			Object[][] written = chunk;
+			chunk = nextChunk;
+			nextChunk = written;
+		}
+		// don't leave a copy running on the buffers
+		copied.join();
+		task.reportProgress(rows);
+		return rows;
+	}
+
+	/*
+	 * copies the values of the rows starting at the specified index on the FX thread
+	 */
+	private CompletableFuture<Void> copyChunk(Snapshot<S> snapshot, int start, Object[][] chunk){
+		final int end = Math.min(start + chunk.length, snapshot.size);
+		return CompletableFuture.runAsync(()->{
+			for (int index = start; index < end; index++) {
+				TreeItem<S> item = snapshot.items.get(index);
+				Object[] values = chunk[index - start];
+				Object[] groupValues = snapshot.groupValues.get(item);
+				if(groupValues != null){
+					System.arraycopy(groupValues, 0, values, 0, values.length);
+				}else{
+					// rows of paged items that are not loaded yet are exported empty
+					for (int i = 0; i < values.length; i++)
+						values[i] = item.getValue() == null ? null : snapshot.columns.get(i).getCellData(item);
+				}
+			}
+		}, Platform::runLater);
+	}
+
+	private void writeLine(Writer writer, Object[] values) throws IOException {
+		char separator = format == Format.TSV ? '\t' : ',';
+		for (int i = 0; i < values.length; i++) {
+			if(i > 0) writer.write(separator);
+			String text = toText(values[i]);
+			if(format == Format.TSV) writeTsv(writer, text);
+			else writeCsv(writer, text);
+		}
+		writer.write('\n');
+	}
+
+	private static void writeCsv(Writer writer, String text) throws IOException {
+		boolean quoted = false;
+		for (int i = 0; i < text.length() && !quoted; i++) {
+			char c = text.charAt(i);
+			quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if(!quoted){
+			writer.write(text);
+			return;
+		}
+		writer.write('"');
+		writer.write(text.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	private static void writeTsv(Writer writer, String text) throws IOException {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '\t': writer.write("\\t"); break;
+			case '\n': writer.write("\\n"); break;
+			case '\r': writer.write("\\r"); break;
+			case '\\': writer.write("\\\\"); break;
+			default: writer.write(c);
+			}
+		}
+	}
+
+	private static void writeJson(Writer writer, String[] names, Object[] values, boolean group, int level) throws IOException {
+		writer.write("{\"level\":");
+		writer.write(Integer.toString(level));
+		if(group) writer.write(",\"group\":true");
+		for (int i = 0; i < values.length; i++) {
+			// group rows only hold the grouped value and the aggregates
+			if(group && values[i] == null) continue;
+			writer.write(',');
+			writeJsonString(writer, names[i] == null ? "" : names[i]);
+			writer.write(':');
+			Object value = values[i];
+			if(value == null || value instanceof Node) writer.write("null");
+			else if(value instanceof Boolean) writer.write(value.toString());
+			else if(value instanceof Number && !isNonFinite((Number) value)) writer.write(value.toString());
+			else writeJsonString(writer, value.toString());
+		}
+		writer.write("}\n");
+	}
+
+	private static boolean isNonFinite(Number number){
+		double value = number.doubleValue();
+		return Double.isNaN(value) || Double.isInfinite(value);
+	}
+
+	private static void writeJsonString(Writer writer, String text) throws IOException {
+		writer.write('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '"': writer.write("\\\""); break;
+			case '\\': writer.write("\\\\"); break;
+			case '\n': writer.write("\\n"); break;
+			case '\r': writer.write("\\r"); break;
+			case '\t': writer.write("\\t"); break;
+			default:
+				if(c < 0x20) writer.write(String.format("\\u%04x", (int) c));
+				else writer.write(c);
+			}
+		}
+		writer.write('"');
+	}
+
+	private static String toText(Object value){
+		// graphic cells have no text
+		return value == null || value instanceof Node ? "" : value.toString();
+	}
+
+	/*
+	 * the shown tree items in display order with their level, the values of the
+	 * data rows are copied in chunks while writing
+	 */
+	private static final class Snapshot<S> {
+		final List<TreeTableColumn<S, ?>> columns;
+		final List<TreeItem<S>> items = new ArrayList<>();
+		final Map<TreeItem<S>, Object[]> groupValues = new IdentityHashMap<>();
+		int[] levels = new int[16];
+		int size = 0;
+
+		Snapshot(List<TreeTableColumn<S, ?>> columns){
+			this.columns = columns;
+		}
+
+		void add(TreeItem<S> item, int level){
+			if(size == levels.length) levels = Arrays.copyOf(levels, size << 1);
+			levels[size++] = level;
+			items.add(item);
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.cells.editors.base;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <h1>Async Editor Builder</h1>
+ * editor builder whose values are validated asynchronously, the cell leaves
+ * the editing state right away and shows the value as pending (<code>:pending</code>
+ * pseudo class) until it's validated and committed. the edits of the same row
+ * are committed in order
+ * <p>
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+public interface AsyncEditorNodeBuilder<T> extends EditorNodeBuilder<T> {
+	/**
+	 * This method will be called on the FX thread before committing the new value of the cell,
+	 * it must not block
+	 *
+	 * @param value the value of the editor node
+	 * @return a stage that completes with the value to be committed, or completes
+	 * exceptionally if the value is not valid
+	 */
+	public CompletionStage<T> validateValueAsync(T value);
+
+	/**
+	 * the value is validated by {@link #validateValueAsync(Object)}
+	 *
+	 * @return Nothing
+	 */
+	@Override
+	public default void validateValue() throws Exception {
+	}
+}
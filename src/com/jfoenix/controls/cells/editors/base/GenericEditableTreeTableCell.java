@@ -18,21 +18,36 @@
  */
 package com.jfoenix.controls.cells.editors.base;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import com.jfoenix.controls.JFXTreeTableColumn;
 import com.jfoenix.controls.cells.editors.TextFieldEditorBuilder;
 import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
 
-import javafx.beans.binding.Bindings;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.binding.DoubleBinding;
 import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableColumn.CellEditEvent;
+import javafx.scene.control.TreeTablePosition;
+import javafx.scene.control.TreeTableView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Region;
@@ -50,6 +65,25 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 	protected EditorNodeBuilder builder;
 	protected Region editorNode;
 
+	/*
+	 * editors are pooled per column, so the editor node of a finished edit
+	 * is rebound to the next edited cell instead of creating a new one.
+	 * each cell adds its builder to the pool once, so there is always an 
+	 * editor for every cell that is editing at the same time. the builder of 
+	 * the pooled editor is only used while the cell holds the editor, the 
+	 * builder field always keeps the builder of the cell
+	 */
+	private static final String EDITOR_POOL_KEY = "jfx-editor-pool";
+	private static final String LEAF_COLUMNS_KEY = "jfx-leaf-columns";
+	private PooledEditor editor;
+	private boolean builderPooled = false;
+
+	/*
+	 * values of async builders that are being validated, per table
+	 */
+	private static final String PENDING_EDITS_KEY = "jfx-pending-edits";
+	private static final PseudoClass PENDING_PSEUDO_CLASS = PseudoClass.getPseudoClass("pending");
+
 
 	/**
 	 * constructor that takes a custom builder to edit the cell
@@ -77,10 +111,16 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 	 * @param losingFocus true if the reason for the call was because the field is losing focus.
 	 */
 	protected void commitHelper( boolean losingFocus ) {
-		if( editorNode == null ) return;
+		if( editor == null ) return;
+		EditorNodeBuilder editorBuilder = editor.builder;
+		if( editorBuilder instanceof AsyncEditorNodeBuilder ) {
+			commitAsync((AsyncEditorNodeBuilder<T>) editorBuilder, losingFocus);
+			return;
+		}
 		try {
-			builder.validateValue();
-			commitEdit(((T) builder.getValue()));
+			editorBuilder.validateValue();
+			commitEdit(((T) editorBuilder.getValue()));
+			releaseEditor();
 		} catch (Exception ex) {
 			//Most of the time we don't mind if there is a parse exception as it
 			//indicates duff user data but in the case where we are losing focus
@@ -93,10 +133,123 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 		}
 
 	}
+	/*
+	 * validates the value off the FX thread, meanwhile the cell leaves the editing state and
+	 * shows the value as pending. the value is committed once it's validated and all previous
+	 * edits of the row are committed. the edit is left through cancelEdit, the value is already 
+	 * queued so the edit cancel event tells that a commit is pending (see isCommitPending)
+	 */
+	private void commitAsync(AsyncEditorNodeBuilder<T> asyncBuilder, boolean losingFocus) {
+		final TreeTableView<S> table = getTreeTableView();
+		final TreeTableColumn<S, T> column = getTableColumn();
+		final TreeItem<S> row = getTreeTableRow().getTreeItem();
+		final T value = asyncBuilder.getValue();
+		final CompletionStage<T> validation;
+		try {
+			validation = asyncBuilder.validateValueAsync(value);
+		} catch (Exception ex) {
+			if( losingFocus ) {
+				cancelEdit();
+			}
+			return;
+		}
+
+		final PendingEdits<S> pendingEdits = getPendingEdits(table, true);
+		pendingEdits.add(row, column, value);
+		final CompletableFuture<Void> previous = pendingEdits.queues.getOrDefault(row, CompletableFuture.completedFuture(null));
+		final GenericEditableTreeTableCell<S, T> cell = this;
+		final List<CompletableFuture<Void>> commit = new ArrayList<>(1);
+		commit.add(previous.thenCompose(v -> validation).handleAsync((validated, error) -> {
+			pendingEdits.remove(row, column);
+			if (pendingEdits.queues.get(row) == commit.get(0)) pendingEdits.queues.remove(row);
+			if (error == null) {
+				// the row may have moved while validating
+				int index = table.getRow(row);
+				if (index >= 0) Event.fireEvent(column, new CellEditEvent<S, T>(table, new TreeTablePosition<>(table, index, column), TreeTableColumn.<S, T>editCommitEvent(), validated));
+			}
+			// show the committed / old value
+			if (cell.getTreeTableRow() != null && cell.getTreeTableRow().getTreeItem() == row && cell.getTableColumn() == column && !cell.isEditing())
+				cell.updateItem(cell.getItem(), cell.isEmpty());
+			return null;
+		}, Platform::runLater));
+		pendingEdits.queues.put(row, commit.get(0));
+
+		// further edits don't wait for the validation
+		cancelEdit();
+		updateItem(getItem(), isEmpty());
+	}
+
+	private static <S> PendingEdits<S> getPendingEdits(TreeTableView<S> table, boolean create) {
+		if (table == null) return null;
+		PendingEdits<S> pendingEdits = (PendingEdits<S>) table.getProperties().get(PENDING_EDITS_KEY);
+		if (pendingEdits == null && create) table.getProperties().put(PENDING_EDITS_KEY, pendingEdits = new PendingEdits<>());
+		return pendingEdits;
+	}
+
+	/*
+	 * the commit queue and the pending values of the rows
+	 */
+	private static final class PendingEdits<S> {
+		private final Map<TreeItem<S>, CompletableFuture<Void>> queues = new IdentityHashMap<>();
+		private final Map<TreeItem<S>, Map<TreeTableColumn<S, ?>, PendingValue>> values = new IdentityHashMap<>();
+
+		void add(TreeItem<S> row, TreeTableColumn<S, ?> column, Object value) {
+			Map<TreeTableColumn<S, ?>, PendingValue> rowValues = values.get(row);
+			if (rowValues == null) values.put(row, rowValues = new IdentityHashMap<>());
+			PendingValue pendingValue = rowValues.get(column);
+			if (pendingValue == null) rowValues.put(column, pendingValue = new PendingValue());
+			pendingValue.value = value;
+			pendingValue.count++;
+		}
+
+		void remove(TreeItem<S> row, TreeTableColumn<S, ?> column) {
+			Map<TreeTableColumn<S, ?>, PendingValue> rowValues = values.get(row);
+			PendingValue pendingValue = rowValues.get(column);
+			if (--pendingValue.count == 0) rowValues.remove(column);
+			if (rowValues.isEmpty()) values.remove(row);
+		}
+
+		PendingValue get(TreeItem<S> row, TreeTableColumn<S, ?> column) {
+			Map<TreeTableColumn<S, ?>, PendingValue> rowValues = values.get(row);
+			return rowValues == null ? null : rowValues.get(column);
+		}
+	}
+
+	/*
+	 * the latest pending value of a cell and the number of its pending edits
+	 */
+	private static final class PendingValue {
+		private Object value;
+		private int count;
+	}
+
+	/**
+	 * an async commit leaves the editing state before its value is validated, 
+	 * which fires an edit cancel event for that cell. 
+	 * 
+	 * @param event an edit event of the table
+	 * @return true if a value of the edited cell is being validated, i.e. the 
+	 * edit cancel event is followed by an edit commit event once validated
+	 */
+	public static <S> boolean isCommitPending(CellEditEvent<S, ?> event) {
+		PendingEdits<S> pendingEdits = getPendingEdits(event.getTreeTableView(), false);
+		if (pendingEdits == null || event.getTreeTablePosition() == null) return false;
+		return pendingEdits.get(event.getRowValue(), event.getTableColumn()) != null;
+	}
+
+	private PendingValue getPendingValue() {
+		PendingEdits<S> pendingEdits = getPendingEdits(getTreeTableView(), false);
+		if (pendingEdits == null || getTreeTableRow() == null) return null;
+		return pendingEdits.get(getTreeTableRow().getTreeItem(), getTableColumn());
+	}
+
 	/**
 	 * Provides the string representation of the value of this cell when the cell is not being edited.
+	 * While an async edit is being validated, it's the pending value.
 	 */
 	protected Object getValue(){
+		PendingValue pendingValue = getPendingValue();
+		if (pendingValue != null) return pendingValue.value == null ? "" : pendingValue.value;
 		return getItem() == null ? "" : getItem();
 	}
 
@@ -104,10 +257,10 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 	public void startEdit() {
 		if(checkGroupedColumn()){
 			super.startEdit();
-			if (editorNode == null) {
-				createEditorNode();
+			if (editor == null) {
+				acquireEditor();
 			}
-			builder.startEdit();
+			editor.builder.startEdit();
 			setGraphic(editorNode);
 			setContentDisplay(ContentDisplay.GRAPHIC_ONLY);			
 		}
@@ -116,21 +269,35 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 	@Override
 	public void cancelEdit() {
 		super.cancelEdit();
-		builder.cancelEdit();
-		builder.setValue(getValue());
+		// a released editor may be used by another cell
+		if (editor != null) {
+			editor.builder.cancelEdit();
+			editor.builder.setValue(getValue());
+		}
 		setContentDisplay(ContentDisplay.TEXT_ONLY);
 		//Once the edit has been cancelled we no longer need the editor
-		//so we mark it for cleanup here. Note though that you have to handle
+		//so we return it to the pool here. Note though that you have to handle
 		//this situation in the focus listener which gets fired at the end
 		//of the editing.
-		editorNode = null;
+		releaseEditor();
+	}
+
+	/*
+	 * true if the focus owner of the scene is the node or one of its children
+	 */
+	private static boolean hasFocusWithin(Scene scene, Node parent) {
+		Node focusOwner = scene == null ? null : scene.getFocusOwner();
+		for (Node node = focusOwner; node != null; node = node.getParent()) {
+			if (node == parent) return true;
+		}
+		return false;
 	}
 	
 	private boolean checkGroupedColumn(){
 		boolean allowEdit = true;
 		if(getTreeTableRow().getTreeItem()!=null){
 			Object rowObject = getTreeTableRow().getTreeItem().getValue();
-			if(rowObject instanceof RecursiveTreeObject && rowObject.getClass() == RecursiveTreeObject.class){
+			if(RecursiveTreeObject.isGroupRow(rowObject)){
 				allowEdit = false;
 			}else{
 				// check grouped columns in the tableview
@@ -144,18 +311,19 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 	@Override
 	public void updateItem(T item, boolean empty) {
 		super.updateItem(item, empty);
+		pseudoClassStateChanged(PENDING_PSEUDO_CLASS, !empty && getPendingValue() != null);
 		if (empty) {
 			setText(null);
 			setGraphic(null);
 		} else {
 			if (isEditing() && checkGroupedColumn()) {
 
-				if (editorNode != null) {
-					builder.setValue(getValue());
-				}
 				setGraphic(editorNode);
 				setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
-				builder.updateItem(item, empty);
+				if (editor != null) {
+					editor.builder.setValue(getValue());
+					editor.builder.updateItem(item, empty);
+				}
 			} else {
 				Object value = getValue();
 				if(value instanceof Node) {
@@ -169,44 +337,132 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 		}
 	}
 
-	private void createEditorNode() {	
-
-		EventHandler<KeyEvent> keyEventsHandler = new EventHandler<KeyEvent>() {
-			@Override
-			public void handle(KeyEvent t) {
-				if (t.getCode() == KeyCode.ENTER) {
-					commitHelper(false);
-				} else if (t.getCode() == KeyCode.ESCAPE) {
-					cancelEdit();
-				} else if (t.getCode() == KeyCode.TAB) {
-					commitHelper(false);
-
-					TreeTableColumn nextColumn = getNextColumn(!t.isShiftDown());
-					if (nextColumn != null) {
-						getTreeTableView().edit(getIndex(), nextColumn);
-					}
-				}
+	/*
+	 * takes an editor from the column pool, the editor node is only created 
+	 * if the pool has no idle editor node
+	 */
+	private void acquireEditor() {
+		Deque<PooledEditor> pool = getEditorPool();
+		if(!builderPooled) {
+			builderPooled = true;
+			pool.offerLast(new PooledEditor(builder, pool));
+		}
+		// the editors that have a node are at the head of the pool
+		PooledEditor pooled = pool.poll();
+		pooled.bind(this);
+		if(pooled.node == null) {
+			pooled.node = pooled.builder.createNode(getValue(), pooled.minWidthBinding, pooled.keyEventsHandler, pooled.focusChangeListener);
+		} else {
+			pooled.builder.setValue(getValue());
+		}
+		editor = pooled;
+		editorNode = pooled.node;
+	}
+
+	/*
+	 * returns the editor to the column pool, the editor node is removed from this cell 
+	 */
+	private void releaseEditor() {
+		if(editor == null) {
+			editorNode = null;
+			return;
+		}
+		PooledEditor pooled = editor;
+		editor = null;
+		editorNode = null;
+		pooled.unbind();
+		// the editor node gives up the focus while it has no owner, so the focus loss 
+		// of this edit isn't delivered to the next cell using the editor
+		TreeTableView<S> table = getTreeTableView();
+		if(table != null && pooled.node != null && hasFocusWithin(table.getScene(), pooled.node)) table.requestFocus();
+		if(getGraphic() == pooled.node) setGraphic(null);
+		pooled.pool.offerFirst(pooled);
+	}
+
+	private Deque<PooledEditor> getEditorPool() {
+		Map<Object, Object> properties = getTableColumn().getProperties();
+		Deque<PooledEditor> pool = (Deque<PooledEditor>) properties.get(EDITOR_POOL_KEY);
+		if(pool == null) properties.put(EDITOR_POOL_KEY, pool = new ArrayDeque<>());
+		return pool;
+	}
+
+	private void handleEditorKey(KeyEvent t) {
+		if (t.getCode() == KeyCode.ENTER) {
+			commitHelper(false);
+		} else if (t.getCode() == KeyCode.ESCAPE) {
+			cancelEdit();
+		} else if (t.getCode() == KeyCode.TAB) {
+			commitHelper(false);
+
+			TreeTableColumn nextColumn = getNextColumn(!t.isShiftDown());
+			if (nextColumn != null) {
+				getTreeTableView().edit(getIndex(), nextColumn);
 			}
+		}
+	}
+
+	/*
+	 * editor node with its handlers, the handlers forward to the cell
+	 * that is currently using the editor
+	 */
+	private static final class PooledEditor {
+		private final EditorNodeBuilder builder;
+		private final Deque<PooledEditor> pool;
+		private Region node;
+		private GenericEditableTreeTableCell<?, ?> owner;
+
+		private final EditorWidthBinding minWidthBinding = new EditorWidthBinding();
+
+		private final EventHandler<KeyEvent> keyEventsHandler = (t)->{
+			if (owner != null) owner.handleEditorKey(t);
 		};
 
-		ChangeListener<Boolean> focusChangeListener = new ChangeListener<Boolean>() {
-			@Override
-			public void changed(ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) {
-				//This focus listener fires at the end of cell editing when focus is lost
-				//and when enter is pressed (because that causes the text field to lose focus).
-				//The problem is that if enter is pressed then cancelEdit is called before this
-				//listener runs and therefore the text field has been cleaned up. If the
-				//text field is null we don't commit the edit. This has the useful side effect
-				//of stopping the double commit.
-				if (!newValue && editorNode != null) {
-					commitHelper(true);
-				}
+		//This focus listener fires at the end of cell editing when focus is lost
+		//and when enter is pressed (because that causes the text field to lose focus).
+		//The problem is that if enter is pressed then cancelEdit is called before this
+		//listener runs and therefore the editor has been released. If the
+		//editor has no owner we don't commit the edit. This has the useful side effect
+		//of stopping the double commit.
+		private final ChangeListener<Boolean> focusChangeListener = (o, oldValue, newValue)->{
+			if (!newValue && owner != null && owner.editorNode != null) {
+				owner.commitHelper(true);
 			}
 		};
-		DoubleBinding minWidthBinding = Bindings.createDoubleBinding(()->{
-			return this.getWidth() - this.getGraphicTextGap()*2 - this.getBaselineOffset() ;
-		}, this.widthProperty(), this.graphicTextGapProperty());
-		editorNode = builder.createNode(getValue(), minWidthBinding, keyEventsHandler, focusChangeListener);
+
+		PooledEditor(EditorNodeBuilder builder, Deque<PooledEditor> pool) {
+			this.builder = builder;
+			this.pool = pool;
+		}
+
+		void bind(GenericEditableTreeTableCell<?, ?> cell) {
+			owner = cell;
+			minWidthBinding.setCell(cell);
+		}
+
+		void unbind() {
+			owner = null;
+			minWidthBinding.setCell(null);
+		}
+	}
+
+	/*
+	 * minimum width of the editor node, it follows the width of the cell using the editor
+	 */
+	private static final class EditorWidthBinding extends DoubleBinding {
+		private GenericEditableTreeTableCell<?, ?> cell;
+
+		void setCell(GenericEditableTreeTableCell<?, ?> newCell) {
+			if(cell != null) unbind(cell.widthProperty(), cell.graphicTextGapProperty());
+			cell = newCell;
+			if(cell != null) bind(cell.widthProperty(), cell.graphicTextGapProperty());
+			invalidate();
+		}
+
+		@Override
+		protected double computeValue() {
+			if(cell == null) return 0;
+			return cell.getWidth() - cell.getGraphicTextGap()*2 - cell.getBaselineOffset();
+		}
 	}
 	
 	/**
@@ -214,44 +470,57 @@ public class GenericEditableTreeTableCell<S, T> extends JFXTreeTableCell<S, T> {
 	 * @return
 	 */
 	private TreeTableColumn<S, ?> getNextColumn(boolean forward) {
-		List<TreeTableColumn<S, ?>> columns = new ArrayList<>();
-		for (TreeTableColumn<S, ?> column : getTreeTableView().getColumns()) {
-			columns.addAll(getLeaves(column));
-		}
-		//There is no other column that supports editing.
-		if (columns.size() < 2) {
-			return null;
-		}
+		List<TreeTableColumn<S, ?>> columns = getLeafColumns();
 		int currentIndex = columns.indexOf(getTableColumn());
-		int nextIndex = currentIndex;
-		if (forward) {
-			nextIndex++;
-			if (nextIndex > columns.size() - 1) {
-				nextIndex = 0;
-			}
-		} else {
-			nextIndex--;
-			if (nextIndex < 0) {
-				nextIndex = columns.size() - 1;
+		// move to the next column that supports editing
+		for (int i = 1; i < columns.size(); i++) {
+			int nextIndex = Math.floorMod(currentIndex + (forward ? i : -i), columns.size());
+			if (columns.get(nextIndex).isEditable() && nextIndex != currentIndex) {
+				return columns.get(nextIndex);
 			}
 		}
-		return columns.get(nextIndex);
+		//There is no other column that supports editing.
+		return null;
 	}
 
+	/*
+	 * the leaf columns of the table are cached in the table properties, 
+	 * and dropped as soon as the columns change
+	 */
+	private List<TreeTableColumn<S, ?>> getLeafColumns() {
+		TreeTableView<S> table = getTreeTableView();
+		LeafColumns<S> leafColumns = (LeafColumns<S>) table.getProperties().get(LEAF_COLUMNS_KEY);
+		if (leafColumns == null) {
+			leafColumns = new LeafColumns<>(table);
+			table.getProperties().put(LEAF_COLUMNS_KEY, leafColumns);
+		}
+		return leafColumns.leaves;
+	}
 
-	private List<TreeTableColumn<S, ?>> getLeaves(TreeTableColumn<S, ?> root) {
-		List<TreeTableColumn<S, ?>> columns = new ArrayList<>();
-		if (root.getColumns().isEmpty()) {
-			//We only want the leaves that are editable.
-			if (root.isEditable()) {
-				columns.add(root);
-			}
-			return columns;
-		} else {
-			for (TreeTableColumn<S, ?> column : root.getColumns()) {
-				columns.addAll(getLeaves(column));
+	private static final class LeafColumns<S> implements InvalidationListener {
+		private final TreeTableView<S> table;
+		private final List<TreeTableColumn<S, ?>> leaves = new ArrayList<>();
+		private final List<ObservableList<TreeTableColumn<S, ?>>> observedColumns = new ArrayList<>();
+
+		LeafColumns(TreeTableView<S> table) {
+			this.table = table;
+			addLeaves(table.getColumns());
+		}
+
+		private void addLeaves(ObservableList<TreeTableColumn<S, ?>> columns) {
+			columns.addListener(this);
+			observedColumns.add(columns);
+			for (TreeTableColumn<S, ?> column : columns) {
+				if (column.getColumns().isEmpty()) leaves.add(column);
+				// the columns of a leaf are observed too, it's no longer a leaf once it has nested columns
+				addLeaves(column.getColumns());
 			}
-			return columns;
+		}
+
+		@Override
+		public void invalidated(Observable observable) {
+			for (ObservableList<TreeTableColumn<S, ?>> columns : observedColumns) columns.removeListener(this);
+			table.getProperties().remove(LEAF_COLUMNS_KEY, this);
 		}
 	}
 }
\ No newline at end of file
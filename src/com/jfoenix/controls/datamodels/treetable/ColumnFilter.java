@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.datamodels.treetable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * declarative predicate of a JFXTreeTableView, it accepts the rows whose column values
+ * match all its criteria. unlike a plain predicate, the criteria can be read by a
+ * {@link PagedDataProvider} and translated into a query (e.g. the where clause of a
+ * database query) instead of testing every row.
+ * <p>
+ * the filter is immutable, {@link #and(TreeTableColumn, Operator, Object)} returns a new
+ * filter so setting it as the table predicate filters the table again.
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ *
+ * @param <T> is the concrete object of the Tree table
+ */
+public final class ColumnFilter<T extends RecursiveTreeObject<T>> implements Predicate<TreeItem<T>> {
+
+	/**
+	 * comparison of the column value of a row with the value of a criterion
+	 */
+	public enum Operator {
+		EQUALS, NOT_EQUALS, CONTAINS, STARTS_WITH, LESS_THAN, GREATER_THAN;
+
+		/**
+		 * @param cellValue the column value of a row
+		 * @param value the value of the criterion
+		 * @return true if the column value matches, texts are matched ignoring the case
+		 */
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		public boolean test(Object cellValue, Object value){
+			switch (this) {
+			case EQUALS:
+				return Objects.equals(cellValue, value);
+			case NOT_EQUALS:
+				return !Objects.equals(cellValue, value);
+			case CONTAINS:
+				return cellValue != null && value != null && lowerCase(cellValue).contains(lowerCase(value));
+			case STARTS_WITH:
+				return cellValue != null && value != null && lowerCase(cellValue).startsWith(lowerCase(value));
+			default:
+				if(!(cellValue instanceof Comparable) || value == null) return false;
+				int result = ((Comparable) cellValue).compareTo(value);
+				return this == LESS_THAN ? result < 0 : result > 0;
+			}
+		}
+
+		private static String lowerCase(Object value){
+			return value.toString().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	/**
+	 * a column, an operator and the value the column values are compared with
+	 */
+	public static final class Criterion<T> {
+		private final TreeTableColumn<T, ?> column;
+		private final Operator operator;
+		private final Object value;
+
+		Criterion(TreeTableColumn<T, ?> column, Operator operator, Object value) {
+			this.column = Objects.requireNonNull(column);
+			this.operator = Objects.requireNonNull(operator);
+			this.value = value;
+		}
+
+		public TreeTableColumn<T, ?> getColumn() {
+			return column;
+		}
+
+		public Operator getOperator() {
+			return operator;
+		}
+
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return column.getText() + " " + operator + " " + value;
+		}
+	}
+
+	private final List<Criterion<T>> criteria;
+
+	/**
+	 * creates a filter without criteria, it accepts every row
+	 */
+	public ColumnFilter() {
+		this.criteria = Collections.emptyList();
+	}
+
+	private ColumnFilter(List<Criterion<T>> criteria) {
+		this.criteria = Collections.unmodifiableList(criteria);
+	}
+
+	/**
+	 * @param column whose values are compared
+	 * @param operator of the comparison
+	 * @param value compared with the column values
+	 * @return a new filter with the criteria of this filter and the new criterion
+	 */
+	public ColumnFilter<T> and(TreeTableColumn<T, ?> column, Operator operator, Object value){
+		List<Criterion<T>> newCriteria = new ArrayList<>(criteria.size() + 1);
+		newCriteria.addAll(criteria);
+		newCriteria.add(new Criterion<>(column, operator, value));
+		return new ColumnFilter<>(newCriteria);
+	}
+
+	/**
+	 * @return the criteria of the filter, all of them must match
+	 */
+	public List<Criterion<T>> getCriteria() {
+		return criteria;
+	}
+
+	/**
+	 * tests the column values of the row, used when the rows are filtered in memory. 
+	 * the values are read through the cell value factories, so the columns must 
+	 * belong to a table
+	 */
+	@Override
+	public boolean test(TreeItem<T> item) {
+		for (Criterion<T> criterion : criteria)
+			if(!criterion.operator.test(criterion.column.getCellData(item), criterion.value)) return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ColumnFilter" + criteria;
+	}
+}
@@ -0,0 +1,397 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.datamodels.treetable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn.CellDataFeatures;
+
+import com.jfoenix.controls.JFXTreeTableColumn;
+import com.jfoenix.controls.RecursiveTreeItem;
+
+/**
+ * columnar data model that can be used in JFXTreeTableView instead of declaring
+ * a RecursiveTreeObject subclass with JavaFX properties, each column stores its
+ * values in a single primitive array (strings are dictionary encoded) and the
+ * table rows are lightweight views that only hold their row index.
+ * <p>
+ * the root created by {@link #createRoot()} wraps every row in a plain leaf tree item
+ * instead of a RecursiveTreeItem, the rows are still filtered, sorted and grouped by
+ * the JFXTreeTableView.
+ * <p>
+ * <b>Note:</b> the values are not observable, the model is meant for large read mostly
+ * data sets. rows are appended using {@link #newRow()} and shown once {@link #publishRows()}
+ * is called.
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ */
+public class ColumnarTable {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final List<Column<?>> columns = new ArrayList<>();
+	/*
+	 * the published rows are the children of the root row
+	 */
+	private final Row rootRow = new Row(this, -1);
+	private final ObservableList<Row> rows = rootRow.getChildren();
+	private int rowCount = 0;
+	private int capacity;
+
+	public ColumnarTable() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity the expected number of rows
+	 */
+	public ColumnarTable(int capacity) {
+		this.capacity = Math.max(capacity, 1);
+	}
+
+	public IntColumn addIntColumn(String name){
+		return addColumn(new IntColumn(name, capacity));
+	}
+
+	public LongColumn addLongColumn(String name){
+		return addColumn(new LongColumn(name, capacity));
+	}
+
+	public DoubleColumn addDoubleColumn(String name){
+		return addColumn(new DoubleColumn(name, capacity));
+	}
+
+	public StringColumn addStringColumn(String name){
+		return addColumn(new StringColumn(name, capacity));
+	}
+
+	private <C extends Column<?>> C addColumn(C column){
+		if(rowCount > 0) throw new IllegalStateException("columns must be added before the rows");
+		columns.add(column);
+		return column;
+	}
+
+	public List<Column<?>> getColumns(){
+		return columns;
+	}
+
+	/**
+	 * appends a new row with default values (0 or null), the row is not
+	 * added to {@link #getRows()} until {@link #publishRows()} is called
+	 *
+	 * @return the index of the new row
+	 */
+	public int newRow(){
+		if(rowCount == capacity){
+			capacity = capacity + (capacity >> 1) + 1;
+			for (Column<?> column : columns) column.grow(capacity);
+		}
+		for (Column<?> column : columns) column.reset(rowCount);
+		return rowCount++;
+	}
+
+	/**
+	 * adds the views of the rows created since the last call
+	 * in a single change
+	 */
+	public void publishRows(){
+		int from = rows.size();
+		if(from == rowCount) return;
+		List<Row> newRows = new ArrayList<>(rowCount - from);
+		for (int i = from; i < rowCount; i++) newRows.add(new Row(this, i));
+		rows.addAll(newRows);
+	}
+
+	/**
+	 * removes all rows, the column dictionaries are kept
+	 */
+	public void clear(){
+		rows.clear();
+		rowCount = 0;
+	}
+
+	public int getRowCount(){
+		return rowCount;
+	}
+
+	/**
+	 * @return the published rows, see {@link #createRoot()}
+	 */
+	public ObservableList<Row> getRows(){
+		return rows;
+	}
+
+	/**
+	 * creates the root tree item of the published rows, it follows the changes of {@link #getRows()}
+	 *
+	 * @return root item to be used in JFXTreeTableView
+	 */
+	public RecursiveTreeItem<Row> createRoot(){
+		return new RecursiveTreeItem<Row>(rootRow, RecursiveTreeObject.childrenFactory()){
+			@Override
+			protected TreeItem<Row> createChildItem(Row row) {
+				return new RowItem(row);
+			}
+		};
+	}
+
+	/**
+	 * lightweight row view used as the value of the tree items, the grouping
+	 * fields inherited from RecursiveTreeObject are only created for group rows
+	 */
+	public static final class Row extends RecursiveTreeObject<Row> {
+		private final ColumnarTable table;
+		private final int index;
+
+		Row(ColumnarTable table, int index){
+			this.table = table;
+			this.index = index;
+		}
+
+		public ColumnarTable getTable(){
+			return table;
+		}
+
+		public int getIndex(){
+			return index;
+		}
+	}
+
+	/*
+	 * tree item of a row, rows have no children
+	 */
+	static final class RowItem extends TreeItem<Row> {
+
+		RowItem(Row row){
+			super(row);
+		}
+
+		@Override
+		public boolean isLeaf() {
+			return true;
+		}
+	}
+
+	/**
+	 * column of the table, it can be bound to a JFXTreeTableColumn using
+	 * {@link #bind(JFXTreeTableColumn)}
+	 *
+	 * @param <T> the type of the column values
+	 */
+	public static abstract class Column<T> {
+		private final String name;
+
+		Column(String name){
+			this.name = name;
+		}
+
+		public String getName(){
+			return name;
+		}
+
+		public abstract T get(int row);
+
+		abstract void grow(int capacity);
+
+		abstract void reset(int row);
+
+		/**
+		 * sets the cell value factory of the tree table column to read from this column,
+		 * and the key extractor used in sorting, grouping and filtering
+		 *
+		 * @param column tree table column
+		 */
+		public void bind(JFXTreeTableColumn<Row, T> column){
+			column.setCellValueFactory((CellDataFeatures<Row, T> param) -> {
+				if(column.validateValue(param)) return new ReadOnlyObjectWrapper<>(get(param.getValue().getValue().index));
+				else return column.getComputedValue(param);
+			});
+			column.setKeyExtractor(row -> get(row.index));
+		}
+	}
+
+	public static final class IntColumn extends Column<Integer> {
+		private int[] values;
+
+		IntColumn(String name, int capacity){
+			super(name);
+			values = new int[capacity];
+		}
+
+		public int getInt(int row){
+			return values[row];
+		}
+
+		public void set(int row, int value){
+			values[row] = value;
+		}
+
+		@Override
+		public Integer get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void reset(int row) {
+			values[row] = 0;
+		}
+
+		@Override
+		public void bind(JFXTreeTableColumn<Row, Integer> column) {
+			super.bind(column);
+			column.setIntKeyExtractor(row -> values[row.index]);
+		}
+	}
+
+	public static final class LongColumn extends Column<Long> {
+		private long[] values;
+
+		LongColumn(String name, int capacity){
+			super(name);
+			values = new long[capacity];
+		}
+
+		public long getLong(int row){
+			return values[row];
+		}
+
+		public void set(int row, long value){
+			values[row] = value;
+		}
+
+		@Override
+		public Long get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void reset(int row) {
+			values[row] = 0;
+		}
+
+		@Override
+		public void bind(JFXTreeTableColumn<Row, Long> column) {
+			super.bind(column);
+			column.setLongKeyExtractor(row -> values[row.index]);
+		}
+	}
+
+	public static final class DoubleColumn extends Column<Double> {
+		private double[] values;
+
+		DoubleColumn(String name, int capacity){
+			super(name);
+			values = new double[capacity];
+		}
+
+		public double getDouble(int row){
+			return values[row];
+		}
+
+		public void set(int row, double value){
+			values[row] = value;
+		}
+
+		@Override
+		public Double get(int row) {
+			return values[row];
+		}
+
+		@Override
+		void grow(int capacity) {
+			values = Arrays.copyOf(values, capacity);
+		}
+
+		@Override
+		void reset(int row) {
+			values[row] = 0;
+		}
+	}
+
+	/**
+	 * string column, each distinct value is stored once and the rows only
+	 * hold the value code
+	 */
+	public static final class StringColumn extends Column<String> {
+		private int[] codes;
+		private final List<String> dictionary = new ArrayList<>();
+		private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+
+		StringColumn(String name, int capacity){
+			super(name);
+			codes = new int[capacity];
+		}
+
+		public void set(int row, String value){
+			if(value == null){
+				codes[row] = -1;
+				return;
+			}
+			Integer code = dictionaryCodes.get(value);
+			if(code == null){
+				code = dictionary.size();
+				dictionary.add(value);
+				dictionaryCodes.put(value, code);
+			}
+			codes[row] = code;
+		}
+
+		@Override
+		public String get(int row) {
+			int code = codes[row];
+			return code == -1 ? null : dictionary.get(code);
+		}
+
+		/**
+		 * @return the number of distinct values in the column
+		 */
+		public int getDictionarySize(){
+			return dictionary.size();
+		}
+
+		@Override
+		void grow(int capacity) {
+			codes = Arrays.copyOf(codes, capacity);
+		}
+
+		@Override
+		void reset(int row) {
+			codes[row] = -1;
+		}
+	}
+
+}
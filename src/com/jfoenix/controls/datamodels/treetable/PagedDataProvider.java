@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.datamodels.treetable;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * data provider used by PagedRecursiveTreeItem to load the rows of a JFXTreeTableView
+ * page by page (e.g. from a database) instead of keeping the whole data set in memory.
+ * <p>
+ * <b>Note:</b> the provider methods are called from a single background thread, never
+ * from the FX thread
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ *
+ * @param <T> is the concrete object of the Tree table
+ */
+public interface PagedDataProvider<T extends RecursiveTreeObject<T>> {
+
+	/**
+	 * @return the number of rows, after applying the current sort and filter
+	 */
+	int getRowCount();
+
+	/**
+	 * @param from index of the first row (inclusive)
+	 * @param to index of the last row (exclusive)
+	 * @return the rows in the specified range
+	 */
+	List<T> fetch(int from, int to);
+
+	/**
+	 * @return true if the provider can sort the rows, otherwise the table can't be sorted
+	 */
+	default boolean isSortable(){
+		return false;
+	}
+
+	/**
+	 * sorts the rows, subsequent fetches must return the rows in the new order
+	 *
+	 * @param sortOrder the sort order of the table
+	 */
+	default void sort(List<TreeTableColumn<T, ?>> sortOrder){
+	}
+
+	/**
+	 * @return true if the provider can filter the rows, otherwise the table predicate is ignored
+	 */
+	default boolean isFilterable(){
+		return false;
+	}
+
+	/**
+	 * filters the rows, subsequent calls to {@link #getRowCount()} and {@link #fetch(int, int)}
+	 * must only consider the accepted rows
+	 *
+	 * @param predicate the predicate of the table
+	 */
+	default void filter(Predicate<TreeItem<T>> predicate){
+	}
+
+	/**
+	 * filters the rows by the criteria of a column filter, the criteria can be translated 
+	 * into a query instead of testing the rows. it's called instead of 
+	 * {@link #filter(Predicate)} when the table predicate is a {@link ColumnFilter}
+	 *
+	 * @param filter the column filter of the table
+	 */
+	default void filter(ColumnFilter<T> filter){
+		filter((Predicate<TreeItem<T>>) filter);
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.datamodels.treetable;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * group row used in JFXTreeTableView when grouping by a column, it holds 
+ * the grouped column and the grouped value.
+ *
+ * @version 1.0
+ * @since   2026-10-17
+ * 
+ * @param <T> is the concrete object of the Tree table
+ */
+public class RecursiveTreeGroup<T> extends RecursiveTreeObject<T> {
+
+	/**
+	 * the tree table column that the object is grouped by
+	 */
+	@Override
+	public final ObjectProperty<TreeTableColumn<T, ?>> groupedColumnProperty() {
+		return super.groupedColumnProperty();
+	}
+
+	@Override
+	public final void setGroupedColumn(final TreeTableColumn<T, ?> groupedColumn) {
+		super.setGroupedColumn(groupedColumn);
+	}
+
+	/**
+	 * the value that must be shown when grouped 
+	 */
+	@Override
+	public final ObjectProperty<Object> groupedValueProperty() {
+		return super.groupedValueProperty();
+	}
+
+	@Override
+	public final void setGroupedValue(final java.lang.Object groupedValue) {
+		super.setGroupedValue(groupedValue);
+	}
+
+}
@@ -23,10 +23,13 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.TreeTableColumn;
+import javafx.util.Callback;
 
 /**
  * data model that is used in JFXTreeTableView, it's used to implement 
- * the grouping feature.
+ * the grouping feature. the children list and the group properties are only 
+ * created when requested, the group rows are {@link RecursiveTreeGroup} objects, 
+ * so data rows carry no extra objects.
  * <p>
  * <b>Note:</b> the data object used in JFXTreeTableView <b>must</b> extends this class
  *
@@ -39,47 +42,105 @@ import javafx.scene.control.TreeTableColumn;
 public class RecursiveTreeObject<T> {
 
 	/**
-	 * gropued children objects
+	 * gropued children objects, created on demand
 	 */
-	ObservableList<T> children = FXCollections.observableArrayList();
+	ObservableList<T> children;
 	
 	public ObservableList<T> getChildren(){
+		if(children == null) children = FXCollections.observableArrayList();
 		return children;
 	}	
+
+	@SuppressWarnings("rawtypes")
+	private static final Callback<RecursiveTreeObject, ObservableList> CHILDREN_FACTORY = RecursiveTreeObject::getChildren;
+
+	/**
+	 * the children factory of the tree items that returns {@link #getChildren()}. 
+	 * unlike other factories, it lets the tree items skip the objects that have no 
+	 * children list yet, their list is observed once created
+	 * 
+	 * @return the default children factory
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static <T> Callback<RecursiveTreeObject<T>, ObservableList<T>> childrenFactory() {
+		return (Callback) CHILDREN_FACTORY;
+	}
 	
 	/**
-	 * Whether or not the object is grouped by a specified tree table column 
+	 * the tree table column that the object is grouped by, created on demand
 	 */
-	ObjectProperty<TreeTableColumn<T, ?>> groupedColumn = new SimpleObjectProperty<>();
+	ObjectProperty<TreeTableColumn<T, ?>> groupedColumn;
 
-	public final ObjectProperty<TreeTableColumn<T, ?>> groupedColumnProperty() {
+	/**
+	 * @deprecated data rows are not grouped, the group rows created by JFXTreeTableView 
+	 * are {@link RecursiveTreeGroup} objects
+	 */
+	@Deprecated
+	public ObjectProperty<TreeTableColumn<T, ?>> groupedColumnProperty() {
+		if(groupedColumn == null) groupedColumn = new SimpleObjectProperty<>();
 		return this.groupedColumn;
 	}
 
+	/**
+	 * @return the column this object is grouped by, null for data rows
+	 */
 	public final TreeTableColumn<T, ?> getGroupedColumn() {
-		return this.groupedColumnProperty().get();
+		return groupedColumn == null ? null : groupedColumn.get();
 	}
 
-	public final void setGroupedColumn(final TreeTableColumn<T, ?> groupedColumn) {
+	/**
+	 * @deprecated see {@link #groupedColumnProperty()}
+	 */
+	@Deprecated
+	public void setGroupedColumn(final TreeTableColumn<T, ?> groupedColumn) {
 		this.groupedColumnProperty().set(groupedColumn);
 	}
-	
+
 	/**
-	 * the value that must be shown when grouped 
+	 * the value that must be shown when grouped, created on demand
 	 */
-	ObjectProperty<Object> groupedValue = new SimpleObjectProperty<>();
+	ObjectProperty<Object> groupedValue;
 
-	public final ObjectProperty<Object> groupedValueProperty() {
+	/**
+	 * @deprecated data rows are not grouped, the group rows created by JFXTreeTableView 
+	 * are {@link RecursiveTreeGroup} objects
+	 */
+	@Deprecated
+	public ObjectProperty<Object> groupedValueProperty() {
+		if(groupedValue == null) groupedValue = new SimpleObjectProperty<>();
 		return this.groupedValue;
 	}
 
+	/**
+	 * @return the value that must be shown when grouped, null for data rows
+	 */
 	public final java.lang.Object getGroupedValue() {
-		return this.groupedValueProperty().get();
+		return groupedValue == null ? null : groupedValue.get();
 	}
 
-	public final void setGroupedValue(final java.lang.Object groupedValue) {
+	/**
+	 * @deprecated see {@link #groupedValueProperty()}
+	 */
+	@Deprecated
+	public void setGroupedValue(final java.lang.Object groupedValue) {
 		this.groupedValueProperty().set(groupedValue);
 	}
-	
+
+	/**
+	 * @return true if the children list is created, rows without a children list 
+	 * have no children, their tree item observes the list once it's created
+	 */
+	public final boolean hasChildrenList() {
+		return children != null;
+	}
+
+	/**
+	 * @param rowObject the value of a tree item
+	 * @return true if the object is a group row or a plain RecursiveTreeObject
+	 * used to hold the children of a tree item, i.e. it's not a data row
+	 */
+	public static boolean isGroupRow(Object rowObject) {
+		return rowObject instanceof RecursiveTreeGroup || (rowObject != null && rowObject.getClass() == RecursiveTreeObject.class);
+	}
 	
 }
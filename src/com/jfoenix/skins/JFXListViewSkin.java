@@ -23,7 +23,8 @@ import com.jfoenix.effects.JFXDepthManager;
 import com.sun.javafx.scene.control.skin.ListViewSkin;
 
 import javafx.application.Platform;
-import javafx.collections.ListChangeListener.Change;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.control.ListCell;
 
 /**
@@ -35,22 +36,54 @@ import javafx.scene.control.ListCell;
  */
 public class JFXListViewSkin<T> extends  ListViewSkin<T>{
 
+    /*
+     * set when the items change, the list is laid out once more after its cells
+     * are updated, so the pref height is estimated from the new cells
+     */
+    private boolean itemsChanged = false;
+    private final ListChangeListener<T> itemsListener = change -> itemsChanged = true;
+    /*
+     * the items list observed by the skin, it follows the items property
+     */
+    private ObservableList<T> observedItems;
+
     public JFXListViewSkin(final JFXListView<T> listView) {
         super(listView);
         JFXDepthManager.setDepth(flow, listView.depthProperty().get());
         listView.depthProperty().addListener((o,oldVal,newVal)->JFXDepthManager.setDepth(flow, newVal));
-        listView.getItems().addListener((Change<? extends T> change)->{
-        	new Thread(()->{
-        		try {
-					Thread.sleep(20);
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-        		Platform.runLater(()->getSkinnable().requestLayout());
-        	}).start();
-        });
+        observeItems();
+        registerChangeListener(listView.itemsProperty(), "ITEMS");
 //      flow.setCreateCell(flow1 -> JFXListViewSkin.this.createCell());        
     }
+
+    @Override protected void handleControlPropertyChanged(String p) {
+    	super.handleControlPropertyChanged(p);
+    	if("ITEMS".equals(p)){
+    		observeItems();
+    		itemsChanged = true;
+    	}
+    }
+
+    private void observeItems(){
+    	if(observedItems != null) observedItems.removeListener(itemsListener);
+    	observedItems = getSkinnable().getItems();
+    	if(observedItems != null) observedItems.addListener(itemsListener);
+    }
+
+    @Override public void dispose() {
+    	if(observedItems != null) observedItems.removeListener(itemsListener);
+    	observedItems = null;
+    	super.dispose();
+    }
+
+    @Override protected void layoutChildren(final double x, final double y, final double w, final double h) {
+    	super.layoutChildren(x, y, w, h);
+    	if(itemsChanged){
+    		itemsChanged = false;
+    		// a layout requested during the layout pass is ignored, so it's requested after the pulse
+    		Platform.runLater(()->getSkinnable().requestLayout());
+    	}
+    }
     
 //    @Override protected void layoutChildren(final double x, final double y,
 //            final double w, final double h) {
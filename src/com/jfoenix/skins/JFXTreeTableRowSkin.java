@@ -18,6 +18,10 @@
  */
 package com.jfoenix.skins;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -27,14 +31,25 @@ import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.control.Control;
 import javafx.scene.control.IndexedCell;
+import javafx.scene.control.TableColumnBase;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableCell;
+import javafx.scene.control.TreeTableColumn;
 import javafx.scene.control.TreeTableRow;
+import javafx.scene.control.TreeTableView;
 import javafx.util.Duration;
 
+import com.jfoenix.controls.JFXTreeTableView;
+import com.jfoenix.controls.cells.editors.base.GenericEditableTreeTableCell;
 import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
 import com.sun.javafx.scene.control.skin.TreeTableRowSkin;
 import com.sun.javafx.scene.control.skin.VirtualFlow;
@@ -81,9 +96,78 @@ public class JFXTreeTableRowSkin<T> extends TreeTableRowSkin<T> {
 	};
 	private Timeline collapsedAnimation;
 	private Animation expandedAnimation;
+	private Node animatedArrow;
+	private TreeItem<T> expandedItem;
+
+	/*
+	 * the tables whose disclosure width is reset when their style changes
+	 */
+	private static final Map<Control, Boolean> styleWatchedControls = new WeakHashMap<Control, Boolean>();
+
+	private static void watchStyle(Control control){
+		if(styleWatchedControls.containsKey(control)) return;
+		styleWatchedControls.put(control, Boolean.TRUE);
+		InvalidationListener styleListener = (o)->{
+			disclosureWidthMap.remove(control);
+			// the rows measure the disclosure width again in their next layout
+			Node flow = control.lookup(".virtual-flow");
+			if(flow instanceof VirtualFlow) requestRowsLayout((VirtualFlow<?>) flow, null);
+		};
+		control.styleProperty().addListener(styleListener);
+		control.getStyleClass().addListener(styleListener);
+		control.skinProperty().addListener(styleListener);
+	}
+
+	/*
+	 * marks the visible rows of the flow (except one) to be laid out in the next layout pass
+	 */
+	private static void requestRowsLayout(VirtualFlow<?> flow, IndexedCell<?> except){
+		IndexedCell<?> first = flow.getFirstVisibleCell(), last = flow.getLastVisibleCell();
+		if(first == null || last == null) return;
+		for (int i = first.getIndex(); i <= last.getIndex(); i++) {
+			IndexedCell<?> cell = flow.getCell(i);
+			if (cell != null && cell != except && !cell.isEmpty()) cell.requestLayout();
+		}
+	}
+
+	/*
+	 * column virtualization: the visible leaf columns whose cells are created by this row.
+	 * the list is created by the base skin constructor (through getVisibleLeafColumns), 
+	 * so these fields must not have initializers
+	 */
+	private ObservableList<TreeTableColumn<T, ?>> columnsWindow;
+	// the x position of the window columns and the width of the skipped columns before them
+	private Map<TableColumnBase<?, ?>, double[]> windowPositions;
+	// the horizontal range of the table content covered by the window
+	private double coveredFrom;
+	private double coveredTo;
+	// the width of the columns skipped before the tree column
+	private double treeColumnShift;
+
+	// the extra width laid out on both sides of the viewport
+	private static final double COLUMNS_MARGIN = 200;
+
+	// cells of the columns that left the window, mapped by their cell factory
+	private final Map<Object, List<TreeTableCell<T, ?>>> recycledCells = new HashMap<>();
+
+	private final List<Node> scrollNodes = new ArrayList<>();
+	private VirtualFlow<?> scrollFlow;
+	private final InvalidationListener scrollListener = (o)->{
+		if(isColumnsVirtualized() && !isViewportCovered()) getSkinnable().requestLayout();
+	};
+	private final InvalidationListener columnsListener = (o)->{
+		updateColumnsWindow();
+		getSkinnable().requestLayout();
+	};
 
 	public JFXTreeTableRowSkin(TreeTableRow<T> control) {
 		super(control);
+		TreeTableView<T> table = control.getTreeTableView();
+		if(table != null){
+			InvalidationListener weakColumnsListener = new WeakInvalidationListener(columnsListener);
+			table.getVisibleLeafColumns().addListener(weakColumnsListener);
+			if(table instanceof JFXTreeTableView) ((JFXTreeTableView<?>)table).columnVirtualizationProperty().addListener(weakColumnsListener);
+		}
 		getSkinnable().indexProperty().addListener((o,oldVal,newVal)->{
 			if(newVal.intValue() != -1){
 				if(newVal.intValue() == expandedIndex){
@@ -137,11 +221,16 @@ public class JFXTreeTableRowSkin<T> extends TreeTableRowSkin<T> {
 	protected void layoutChildren(final double x, final double y, final double w, final double h) {		
 		// allow custom skin to grouped rows
 		getSkinnable().getStyleClass().remove("tree-table-row-group");
-		if(getSkinnable().getTreeItem() != null && getSkinnable().getTreeItem().getValue() instanceof RecursiveTreeObject && getSkinnable().getTreeItem().getValue().getClass() == RecursiveTreeObject.class)
+		if(getSkinnable().getTreeItem() != null && RecursiveTreeObject.isGroupRow(getSkinnable().getTreeItem().getValue()))
 			getSkinnable().getStyleClass().add("tree-table-row-group");
 
+		watchScroll();
+		updateColumnsWindow();
+
 		if(getSkinnable().getIndex() > -1 && getSkinnable().getTreeTableView().getTreeItem(getSkinnable().getIndex()) != null){
 			super.layoutChildren(x, y, w, h);
+			relocateCells();
+			recycledCells.clear();
 
 			//add rippler effects to each row in the table
 //			rippler.resize(w, h);
@@ -158,55 +247,52 @@ public class JFXTreeTableRowSkin<T> extends TreeTableRowSkin<T> {
 			// disclosure row case
 			if(getSkinnable().getTreeItem()!=null && !getSkinnable().getTreeItem().isLeaf()){
 
-				// register the width of disclosure node
+				// register the width of disclosure node, the widest disclosure node of the table is kept
+				// until its style changes. prefWidth is cached by the disclosure node between layouts
 				Control c = getVirtualFlowOwner();
-				final double defaultDisclosureWidth = disclosureWidthMap.containsKey(c) ? disclosureWidthMap.get(c) : 0;
-				double disclosureWidth =  getDisclosureNode().prefWidth(h);
-				if (disclosureWidth > defaultDisclosureWidth) {
+				Double cachedWidth = disclosureWidthMap.get(c);
+				double disclosureWidth = getDisclosureNode().prefWidth(h);
+				if (cachedWidth == null || disclosureWidth > cachedWidth) {
 					disclosureWidthMap.put(c, disclosureWidth);
+					watchStyle(c);
+					// the other rows were laid out with the previous width, they
+					// are laid out again in the next layout pass
 					Parent p = getSkinnable();
 					while (p != null) {
 						if (p instanceof VirtualFlow)
 							break;
 						p = p.getParent();
 					}
-					if(p!=null){
-						final VirtualFlow<?> flow = (VirtualFlow<?>) p;
-						for (int i = flow.getFirstVisibleCell().getIndex() ; i <= flow.getLastVisibleCell().getIndex(); i++) {
-							IndexedCell<?> cell = flow.getCell(i);							
-							if (cell == null || cell.isEmpty() || cell.getIndex() >= getSkinnable().getIndex()) continue;
-							cell.requestLayout();
-							cell.layout();
-						}
-					}
+					if(p!=null) requestRowsLayout((VirtualFlow<?>) p, getSkinnable());
 				}
 
 
 				// relocating the disclosure node according to the grouping column
 				Node arrow = ((Parent)getDisclosureNode()).getChildrenUnmodifiable().get(0);
-				Node col = getChildren().get((getSkinnable().getTreeTableView().getTreeItemLevel(getSkinnable().getTreeItem())+1));
+				int index = getSkinnable().getTreeTableView().getTreeItemLevel(getSkinnable().getTreeItem());
 				if(getSkinnable().getItem() instanceof RecursiveTreeObject){
 					if(((RecursiveTreeObject<?>)getSkinnable().getItem()).getGroupedColumn()!=null){
-						int index = getSkinnable().getTreeTableView().getColumns().indexOf(((RecursiveTreeObject<?>)getSkinnable().getItem()).getGroupedColumn());
+						index = getSkinnable().getTreeTableView().getColumns().indexOf(((RecursiveTreeObject<?>)getSkinnable().getItem()).getGroupedColumn());
 						//						getSkinnable().getTreeTableView().getColumns().get(index).getText();
-						col = getChildren().get(index+1); // index + 2 , if the rippler was added
 					}
 				}								
-				arrow.getParent().setTranslateX(col.getBoundsInParent().getMinX());
+				arrow.getParent().setTranslateX(getColumnX(index));
 				arrow.getParent().setLayoutX(0);
 
 
-				// add disclosure node animation 	
-				if(expandedAnimation == null || !expandedAnimation.getStatus().equals(Status.RUNNING)){
+				// add disclosure node animation, the animations are created once per arrow node
+				if(arrow != animatedArrow){
+					animatedArrow = arrow;
 					expandedAnimation = new Timeline(new KeyFrame(Duration.millis(160), new KeyValue(arrow.rotateProperty(), 90, Interpolator.EASE_BOTH)));
 					expandedAnimation.setOnFinished((finish)->arrow.setRotate(90));
-				}
-				if(collapsedAnimation == null || !collapsedAnimation.getStatus().equals(Status.RUNNING)){
 					collapsedAnimation = new Timeline(new KeyFrame(Duration.millis(160), new KeyValue(arrow.rotateProperty(), 0, Interpolator.EASE_BOTH)));
 					collapsedAnimation.setOnFinished((finish)->arrow.setRotate(0));
 				}
-				getSkinnable().getTreeItem().expandedProperty().removeListener(expandedListener);
-				getSkinnable().getTreeItem().expandedProperty().addListener(expandedListener);
+				if(expandedItem != getSkinnable().getTreeItem()){
+					if(expandedItem != null) expandedItem.expandedProperty().removeListener(expandedListener);
+					expandedItem = getSkinnable().getTreeItem();
+					expandedItem.expandedProperty().addListener(expandedListener);
+				}
 
 				if(expandTriggered){
 					if(getSkinnable().getTreeTableView().getTreeItem(getSkinnable().getIndex()).isExpanded()){
@@ -231,4 +317,199 @@ public class JFXTreeTableRowSkin<T> extends TreeTableRowSkin<T> {
 
 	}
 
+	/*
+	 * @return the x position of the cell at the specified column index
+	 */
+	private double getColumnX(int index){
+		if(!isColumnsVirtualized())
+			return getChildren().get(index+1).getBoundsInParent().getMinX(); // index + 2 , if the rippler was added
+		// the cell may not be created, the position is computed from the columns widths
+		double columnX = snappedLeftInset();
+		List<TreeTableColumn<T, ?>> columns = getSkinnable().getTreeTableView().getVisibleLeafColumns();
+		for (int i = 0; i < index && i < columns.size(); i++) columnX += columns.get(i).getWidth();
+		return columnX;
+	}
+
+	private boolean isColumnsVirtualized(){
+		TreeTableView<T> table = getSkinnable().getTreeTableView();
+		return table instanceof JFXTreeTableView && ((JFXTreeTableView<?>)table).isColumnVirtualization();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * returns the columns whose cells are created by this row, i.e. the columns
+	 * intersecting the viewport if the table columns are virtualized
+	 */
+	@Override
+	protected ObservableList<TreeTableColumn<T, ?>> getVisibleLeafColumns() {
+		if(columnsWindow == null){
+			// called first by the base skin constructor, the window is updated in the first layout
+			ObservableList<TreeTableColumn<T, ?>> columns = super.getVisibleLeafColumns();
+			columnsWindow = FXCollections.observableArrayList(columns);
+			if(isColumnsVirtualized() && columns.size() > 1) columnsWindow.setAll(columns.get(0));
+		}
+		return columnsWindow;
+	}
+
+	@Override
+	protected TreeTableCell<T, ?> getCell(TableColumnBase tcb) {
+		// the pool is null while the base skin constructor creates the first cells
+		List<TreeTableCell<T, ?>> recycled = recycledCells == null ? null : recycledCells.get(((TreeTableColumn<T, ?>) tcb).getCellFactory());
+		if(recycled != null && !recycled.isEmpty()){
+			TreeTableCell cell = recycled.remove(recycled.size() - 1);
+			cell.updateTreeTableColumn((TreeTableColumn) tcb);
+			return cell;
+		}
+		return super.getCell(tcb);
+	}
+
+	@Override
+	protected double computePrefWidth(double height, double topInset, double rightInset, double bottomInset, double leftInset) {
+		if(!isColumnsVirtualized()) return super.computePrefWidth(height, topInset, rightInset, bottomInset, leftInset);
+		// the row keeps the width of all columns, even if their cells are not created
+		double prefWidth = 0;
+		for (TreeTableColumn<T, ?> column : getSkinnable().getTreeTableView().getVisibleLeafColumns())
+			prefWidth += column.getWidth();
+		return prefWidth;
+	}
+
+	/*
+	 * updates the columns window, the base skin recreates the row cells when the window changes
+	 */
+	private void updateColumnsWindow(){
+		TreeTableView<T> table = getSkinnable().getTreeTableView();
+		if(table == null || columnsWindow == null) return;
+		if(windowPositions == null) windowPositions = new IdentityHashMap<>();
+		windowPositions.clear();
+		List<TreeTableColumn<T, ?>> columns = table.getVisibleLeafColumns();
+		List<TreeTableColumn<T, ?>> window;
+		if(!isColumnsVirtualized()){
+			window = columns;
+			coveredFrom = Double.NEGATIVE_INFINITY;
+			coveredTo = Double.POSITIVE_INFINITY;
+			treeColumnShift = 0;
+		}else{
+			double[] viewport = getViewport();
+			coveredFrom = viewport[0] - COLUMNS_MARGIN;
+			coveredTo = viewport[0] + viewport[1] + COLUMNS_MARGIN;
+			// the disclosure node is placed in the tree column, so its cell is always created
+			TreeTableColumn<T, ?> treeColumn = table.getTreeColumn();
+			if(treeColumn == null || !columns.contains(treeColumn)) treeColumn = columns.isEmpty() ? null : columns.get(0);
+			window = new ArrayList<>();
+			double columnX = 0;
+			double skipped = 0;
+			for (TreeTableColumn<T, ?> column : columns) {
+				double end = columnX + column.getWidth();
+				if(column == treeColumn || (end > coveredFrom && columnX < coveredTo)){
+					window.add(column);
+					windowPositions.put(column, new double[]{columnX, skipped});
+					if(column == treeColumn) treeColumnShift = skipped;
+				}else{
+					skipped += column.getWidth();
+				}
+				columnX = end;
+			}
+		}
+		if(sameColumns(columnsWindow, window)) return;
+		if(isColumnsVirtualized()) recycleCells(window);
+		columnsWindow.setAll(window);
+	}
+
+	private static boolean sameColumns(List<?> columns, List<?> otherColumns){
+		if(columns.size() != otherColumns.size()) return false;
+		for (int i = 0; i < columns.size(); i++)
+			if(columns.get(i) != otherColumns.get(i)) return false;
+		return true;
+	}
+
+	/*
+	 * removes the cells of the columns leaving the window from the base skin cache,
+	 * so they can be reused by the columns entering the window
+	 */
+	private void recycleCells(List<TreeTableColumn<T, ?>> window){
+		Map<TableColumnBase<?, ?>, Boolean> windowColumns = new IdentityHashMap<>();
+		for (TreeTableColumn<T, ?> column : window) windowColumns.put(column, Boolean.TRUE);
+		for (TreeTableCell<T, ?> cell : cells) {
+			TreeTableColumn<T, ?> column = cell.getTableColumn();
+			// editable cells hold an editor in the pool of their column, they are not recycled
+			if(column == null || windowColumns.containsKey(column) || cell.isEditing() || cell instanceof GenericEditableTreeTableCell) continue;
+			cellsMap.remove(column);
+			cell.updateIndex(-1);
+			List<TreeTableCell<T, ?>> recycled = recycledCells.get(column.getCellFactory());
+			if(recycled == null) recycledCells.put(column.getCellFactory(), recycled = new ArrayList<>());
+			recycled.add(cell);
+		}
+	}
+
+	/*
+	 * the base skin lays out the window cells next to each other, they are moved
+	 * by the width of the columns skipped before them
+	 */
+	private void relocateCells(){
+		if(!isColumnsVirtualized() || windowPositions == null) return;
+		for (TreeTableCell<T, ?> cell : cells) {
+			double[] position = windowPositions.get(cell.getTableColumn());
+			if(position == null) continue;
+			if(cell.getParent() == null){
+				// with a fixed cell size the base skin removes the cells it considers hidden
+				getChildren().add(cell);
+				double height = getSkinnable().getTreeTableView().getFixedCellSize();
+				cell.resize(cell.getTableColumn().getWidth(), height > 0 ? height : cell.prefHeight(-1));
+				cell.relocate(snappedLeftInset() + position[0], snappedTopInset());
+			}else if(position[1] > 0){
+				cell.setLayoutX(cell.getLayoutX() + position[1]);
+			}
+		}
+		// the disclosure node and the graphic are placed in the tree column
+		if(treeColumnShift > 0)
+			for (Node child : getChildren())
+				if(!(child instanceof TreeTableCell)) child.setLayoutX(child.getLayoutX() + treeColumnShift);
+	}
+
+	/*
+	 * @return the horizontal scroll position and the width of the viewport
+	 */
+	private double[] getViewport(){
+		double offset = 0;
+		Node node = getSkinnable();
+		while(node != null && !(node instanceof VirtualFlow)){
+			offset += node.getLayoutX() + node.getTranslateX();
+			node = node.getParent();
+		}
+		if(node == null) return new double[]{0, getSkinnable().getTreeTableView().getWidth()};
+		return new double[]{-offset, ((VirtualFlow<?>) node).getWidth()};
+	}
+
+	private boolean isViewportCovered(){
+		double[] viewport = getViewport();
+		return viewport[0] >= coveredFrom && viewport[0] + viewport[1] <= coveredTo;
+	}
+
+	/*
+	 * the rows are not laid out when the table is scrolled horizontally, so the row
+	 * listens to the position of its ancestors in the virtual flow and to the flow width
+	 */
+	private void watchScroll(){
+		if(!isColumnsVirtualized()) return;
+		Parent parent = getSkinnable().getParent();
+		if(!scrollNodes.isEmpty() && scrollNodes.get(0) == parent) return;
+		for (Node node : scrollNodes) node.layoutXProperty().removeListener(scrollListener);
+		scrollNodes.clear();
+		if(scrollFlow != null) scrollFlow.widthProperty().removeListener(scrollListener);
+		scrollFlow = null;
+		while(parent != null && !(parent instanceof VirtualFlow)){
+			scrollNodes.add(parent);
+			parent = parent.getParent();
+		}
+		if(parent == null){
+			// the row is not shown in a table yet
+			scrollNodes.clear();
+			return;
+		}
+		for (Node node : scrollNodes) node.layoutXProperty().addListener(scrollListener);
+		scrollFlow = (VirtualFlow<?>) parent;
+		scrollFlow.widthProperty().addListener(scrollListener);
+	}
+
 }
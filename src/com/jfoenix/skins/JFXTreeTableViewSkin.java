@@ -18,8 +18,10 @@
  */
 package com.jfoenix.skins;
 
+import javafx.scene.control.IndexedCell;
 import javafx.scene.control.TreeTableView;
 
+import com.jfoenix.controls.JFXTreeTableView;
 import com.sun.javafx.scene.control.skin.TableHeaderRow;
 import com.sun.javafx.scene.control.skin.TreeTableViewSkin;
 
@@ -31,6 +33,14 @@ public class JFXTreeTableViewSkin<S> extends TreeTableViewSkin<S> {
 
 	public JFXTreeTableViewSkin(TreeTableView<S> treeTableView) {
 		super(treeTableView);
+		// auto scroll: the new rows are followed if the last row was shown before they were added
+		treeTableView.expandedItemCountProperty().addListener((o,oldVal,newVal)->{
+			if(!(treeTableView instanceof JFXTreeTableView) || !((JFXTreeTableView<?>)treeTableView).isAutoScroll()) return;
+			if(newVal.intValue() <= oldVal.intValue()) return;
+			IndexedCell<?> lastCell = flow.getLastVisibleCell();
+			if(lastCell == null || lastCell.getIndex() >= oldVal.intValue() - 1)
+				flow.scrollTo(newVal.intValue() - 1);
+		});
 	}
 	
     protected TableHeaderRow createTableHeaderRow() {
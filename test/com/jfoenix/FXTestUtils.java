@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.jfoenix.concurrency.JFXUtilities;
+import com.sun.javafx.application.PlatformImpl;
+
+import javafx.application.Platform;
+
+/**
+ * starts the FX toolkit once for the tests, and runs code on the FX thread
+ */
+public final class FXTestUtils {
+
+	private static boolean started = false;
+
+	private FXTestUtils() {
+	}
+
+	public static synchronized void startToolkit() throws InterruptedException {
+		if(started) return;
+		CountDownLatch latch = new CountDownLatch(1);
+		try{
+			PlatformImpl.startup(latch::countDown);
+		}catch(IllegalStateException e){
+			// already started by another test runner
+			latch.countDown();
+		}
+		latch.await();
+		// the toolkit must keep running when the stages of a test are closed
+		Platform.setImplicitExit(false);
+		started = true;
+	}
+
+	public static void runAndWait(Runnable runnable){
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		JFXUtilities.runInFXAndWait(() -> {
+			try{
+				runnable.run();
+			}catch(Throwable e){
+				error.set(e);
+			}
+		});
+		rethrow(error.get());
+	}
+
+	public static <T> T callAndWait(Supplier<T> supplier){
+		AtomicReference<T> result = new AtomicReference<>();
+		runAndWait(() -> result.set(supplier.get()));
+		return result.get();
+	}
+
+	private static void rethrow(Throwable e){
+		if(e instanceof RuntimeException) throw (RuntimeException) e;
+		if(e instanceof Error) throw (Error) e;
+		if(e != null) throw new RuntimeException(e);
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.JFXTreeTableColumn.AggregateType;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+public class GroupTreeTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final String group;
+		final int value;
+
+		Row(String group, int value) {
+			this.group = group;
+			this.value = value;
+		}
+	}
+
+	private JFXTreeTableColumn<Row, String> groupColumn;
+	private Map<AggregateType, JFXTreeTableColumn<Row, Integer>> aggregateColumns;
+	private List<TreeItem<Row>> items;
+	private GroupTree<Row> tree;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			groupColumn = new JFXTreeTableColumn<>("group");
+			groupColumn.setKeyExtractor(row -> row.group);
+			aggregateColumns = new IdentityHashMap<>();
+			for (AggregateType type : AggregateType.values()) {
+				JFXTreeTableColumn<Row, Integer> column = new JFXTreeTableColumn<>(type.name());
+				column.setIntKeyExtractor(row -> row.value);
+				column.setAggregate(type);
+				aggregateColumns.put(type, column);
+			}
+			items = new ArrayList<>();
+			for (int value : new int[]{1, 5, 9}) items.add(new TreeItem<>(new Row("a", value)));
+			for (int value : new int[]{2, 3}) items.add(new TreeItem<>(new Row("b", value)));
+			tree = GroupTree.build(items, Arrays.<TreeTableColumn<Row, ?>>asList(groupColumn), new ArrayList<>(aggregateColumns.values()), false);
+			// group tree items as created by the table
+			tree.root.treeItem = groupItem(tree.root);
+			for (GroupTree.Node leaf : tree.root.children.values()) {
+				RecursiveTreeItem<Row> treeItem = groupItem(leaf);
+				treeItem.addItems(tree.getItems(leaf));
+				((RecursiveTreeItem<Row>) tree.root.treeItem).addItems(Arrays.asList(treeItem));
+			}
+		});
+	}
+
+	private RecursiveTreeItem<Row> groupItem(GroupTree.Node node){
+		RecursiveTreeItem<Row> treeItem = new RecursiveTreeItem<>(FXCollections.<Row>observableArrayList(), RecursiveTreeObject::getChildren);
+		node.treeItem = treeItem;
+		tree.groupItems.put(treeItem, node);
+		return treeItem;
+	}
+
+	private Number aggregate(GroupTree.Node node, AggregateType type){
+		return tree.getAggregateValue(node.treeItem, aggregateColumns.get(type)).get();
+	}
+
+	/*
+	 * removes a batch of items of a leaf group the same way the table does
+	 */
+	private void remove(GroupTree.Node leaf, List<TreeItem<Row>> removedItems){
+		Map<TreeItem<Row>, Boolean> removed = new IdentityHashMap<>();
+		for (TreeItem<Row> item : removedItems) removed.put(item, Boolean.TRUE);
+		((RecursiveTreeItem<Row>) leaf.treeItem).removeItems(removed);
+		for (TreeItem<Row> item : removedItems) tree.removeFromAggregates(leaf, item);
+		tree.publishAggregates(leaf);
+	}
+
+	@Test
+	public void aggregatesAreComputedWhileGrouping(){
+		GroupTree.Node a = tree.root.children.get("a");
+		assertEquals(3L, aggregate(a, AggregateType.COUNT));
+		assertEquals(15.0, aggregate(a, AggregateType.SUM));
+		assertEquals(1.0, aggregate(a, AggregateType.MIN));
+		assertEquals(9.0, aggregate(a, AggregateType.MAX));
+		assertEquals(5L, aggregate(tree.root, AggregateType.COUNT));
+		assertEquals(20.0, aggregate(tree.root, AggregateType.SUM));
+	}
+
+	@Test
+	public void batchRemovalOfMinAndMax(){
+		FXTestUtils.runAndWait(() -> {
+			GroupTree.Node a = tree.root.children.get("a");
+			remove(a, Arrays.asList(items.get(0), items.get(2)));
+
+			assertEquals(1L, aggregate(a, AggregateType.COUNT));
+			assertEquals(5.0, aggregate(a, AggregateType.SUM));
+			assertEquals(5.0, aggregate(a, AggregateType.MIN));
+			assertEquals(5.0, aggregate(a, AggregateType.MAX));
+			assertEquals(5.0, aggregate(a, AggregateType.AVG));
+
+			assertEquals(3L, aggregate(tree.root, AggregateType.COUNT));
+			assertEquals(10.0, aggregate(tree.root, AggregateType.SUM));
+			assertEquals(2.0, aggregate(tree.root, AggregateType.MIN));
+			assertEquals(5.0, aggregate(tree.root, AggregateType.MAX));
+		});
+	}
+
+	@Test
+	public void batchRemovalOfAllItems(){
+		FXTestUtils.runAndWait(() -> {
+			GroupTree.Node b = tree.root.children.get("b");
+			remove(b, Arrays.asList(items.get(3), items.get(4)));
+
+			assertEquals(0L, aggregate(b, AggregateType.COUNT));
+			assertEquals(0.0, aggregate(b, AggregateType.SUM));
+			assertNull(aggregate(b, AggregateType.MIN));
+			assertNull(aggregate(b, AggregateType.MAX));
+
+			assertEquals(3L, aggregate(tree.root, AggregateType.COUNT));
+			assertEquals(1.0, aggregate(tree.root, AggregateType.MIN));
+			assertEquals(9.0, aggregate(tree.root, AggregateType.MAX));
+		});
+	}
+
+	@Test
+	public void removalsFromSeveralGroups(){
+		FXTestUtils.runAndWait(() -> {
+			GroupTree.Node a = tree.root.children.get("a");
+			GroupTree.Node b = tree.root.children.get("b");
+			remove(a, Arrays.asList(items.get(0)));
+			remove(b, Arrays.asList(items.get(3)));
+
+			assertEquals(3L, aggregate(tree.root, AggregateType.COUNT));
+			assertEquals(17.0, aggregate(tree.root, AggregateType.SUM));
+			assertEquals(3.0, aggregate(tree.root, AggregateType.MIN));
+			assertEquals(9.0, aggregate(tree.root, AggregateType.MAX));
+		});
+	}
+
+	@Test
+	public void groupingFunctionBuildsTheSameGroups(){
+		FXTestUtils.runAndWait(() -> {
+			// custom grouping by the parity of the value
+			GroupTree<Row> custom = GroupTree.build(items, Arrays.<TreeTableColumn<Row, ?>>asList(groupColumn), new ArrayList<>(), (groupItems, column) -> {
+				Map<Boolean, List<TreeItem<Row>>> groups = new LinkedHashMap<>();
+				for (TreeItem<Row> item : groupItems)
+					groups.computeIfAbsent(item.getValue().value % 2 == 0, key -> new ArrayList<>()).add(item);
+				return groups;
+			});
+			assertEquals(2, custom.root.children.size());
+			assertEquals(Arrays.asList(items.get(0), items.get(1), items.get(2), items.get(4)), custom.getItems(custom.root.children.get(false)));
+			assertEquals(Arrays.asList(items.get(3)), custom.getItems(custom.root.children.get(true)));
+			assertEquals(5, custom.root.size());
+		});
+	}
+
+	@Test
+	public void primitiveKeysBuildTheSameGroupsAsBoxedKeys(){
+		FXTestUtils.runAndWait(() -> {
+			List<TreeItem<Row>> rows = new ArrayList<>();
+			for (int i = 0; i < 50_000; i++) rows.add(new TreeItem<>(new Row("row", (i * 7919) % 1000 - 500)));
+			JFXTreeTableColumn<Row, Integer> intColumn = new JFXTreeTableColumn<>("int");
+			intColumn.setIntKeyExtractor(row -> row.value);
+			JFXTreeTableColumn<Row, Long> longColumn = new JFXTreeTableColumn<>("long");
+			longColumn.setLongKeyExtractor(row -> row.value * 10_000_000_000L);
+			JFXTreeTableColumn<Row, Integer> boxedColumn = new JFXTreeTableColumn<>("boxed");
+			boxedColumn.setKeyExtractor(row -> row.value);
+
+			GroupTree<Row> boxed = GroupTree.build(rows, Arrays.<TreeTableColumn<Row, ?>>asList(boxedColumn), new ArrayList<>(), true);
+			for (TreeTableColumn<Row, ?> column : Arrays.<TreeTableColumn<Row, ?>>asList(intColumn, longColumn)) {
+				GroupTree<Row> primitive = GroupTree.build(rows, Arrays.<TreeTableColumn<Row, ?>>asList(column), new ArrayList<>(), true);
+				assertEquals(1000, primitive.root.children.size());
+				List<GroupTree.Node> boxedGroups = new ArrayList<>(boxed.root.children.values());
+				List<GroupTree.Node> primitiveGroups = new ArrayList<>(primitive.root.children.values());
+				for (int i = 0; i < boxedGroups.size(); i++) {
+					assertEquals(((Number) boxedGroups.get(i).value).longValue() * (column == longColumn ? 10_000_000_000L : 1),
+							((Number) primitiveGroups.get(i).value).longValue());
+					assertEquals(boxed.getItems(boxedGroups.get(i)), primitive.getItems(primitiveGroups.get(i)));
+				}
+			}
+			assertEquals(Integer.class, new ArrayList<>(GroupTree.build(rows, Arrays.<TreeTableColumn<Row, ?>>asList(intColumn), new ArrayList<>(), false)
+					.root.children.keySet()).get(0).getClass());
+		});
+	}
+
+	/*
+	 * checks that the groups have the same values, children order and items
+	 */
+	private static void assertSameGroups(GroupTree<Row> expectedTree, GroupTree.Node expected, GroupTree<Row> actualTree, GroupTree.Node actual){
+		assertEquals(expected.value, actual.value);
+		assertEquals(expectedTree.getItems(expected), actualTree.getItems(actual));
+		if(expected.children == null){
+			assertNull(actual.children);
+			return;
+		}
+		assertEquals(new ArrayList<>(expected.children.keySet()), new ArrayList<>(actual.children.keySet()));
+		for (Object key : expected.children.keySet())
+			assertSameGroups(expectedTree, expected.children.get(key), actualTree, actual.children.get(key));
+	}
+
+	@Test
+	public void parallelGroupingBuildsTheSameGroupsAsSequentialGrouping(){
+		FXTestUtils.runAndWait(() -> {
+			// several chunks of the parallel threshold, the groups first appear out of key order
+			List<TreeItem<Row>> rows = new ArrayList<>();
+			for (int i = 0; i < 100_000; i++) rows.add(new TreeItem<>(new Row("g" + (i * 31) % 97, (i * 7919) % 50)));
+			JFXTreeTableColumn<Row, Integer> valueColumn = new JFXTreeTableColumn<>("value");
+			valueColumn.setIntKeyExtractor(row -> row.value);
+			List<TreeTableColumn<Row, ?>> columns = Arrays.<TreeTableColumn<Row, ?>>asList(groupColumn, valueColumn);
+
+			GroupTree<Row> sequential = GroupTree.build(rows, columns, new ArrayList<>(), false);
+			GroupTree<Row> parallel = GroupTree.build(rows, columns, new ArrayList<>(), true);
+			assertEquals(97, sequential.root.children.size());
+			assertEquals(Arrays.asList("g0", "g31", "g62", "g93"), new ArrayList<>(sequential.root.children.keySet()).subList(0, 4));
+			assertSameGroups(sequential, sequential.root, parallel, parallel.root);
+			assertEquals(rows.size(), parallel.root.size());
+		});
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexSortTest {
+
+	/*
+	 * stable reference order of the keys
+	 */
+	private static int[] referenceOrder(int[] keys){
+		Integer[] indices = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++) indices[i] = i;
+		Arrays.sort(indices, (a, b) -> Integer.compare(keys[a], keys[b]));
+		int[] order = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) order[i] = indices[i];
+		return order;
+	}
+
+	@Test
+	public void sortsLikeAStableSort(){
+		Random random = new Random(42);
+		for (int size : new int[]{0, 1, 2, 15, 16, 17, 100, 8193, 100_000}) {
+			// few distinct keys, so the stability is checked
+			int[] keys = new int[size];
+			for (int i = 0; i < size; i++) keys[i] = random.nextInt(50);
+			assertArrayEquals("size " + size, referenceOrder(keys), IndexSort.sort(size, (a, b) -> Integer.compare(keys[a], keys[b])));
+		}
+	}
+
+	@Test
+	public void sortsOrderedAndReversedKeys(){
+		int size = 50_000;
+		int[] ascending = new int[size];
+		int[] descending = new int[size];
+		for (int i = 0; i < size; i++) {
+			ascending[i] = i;
+			descending[i] = size - i;
+		}
+		assertArrayEquals(referenceOrder(ascending), IndexSort.sort(size, (a, b) -> Integer.compare(ascending[a], ascending[b])));
+		assertArrayEquals(referenceOrder(descending), IndexSort.sort(size, (a, b) -> Integer.compare(descending[a], descending[b])));
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.TreeTableCell;
+import javafx.stage.Stage;
+
+public class JFXTreeTableColumnTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final Double amount;
+
+		Row(double amount) {
+			this.amount = amount;
+		}
+	}
+
+	private final AtomicInteger formats = new AtomicInteger();
+	private JFXTreeTableView<Row> table;
+	private JFXTreeTableColumn<Row, Double> column;
+	private Stage stage;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			column = new JFXTreeTableColumn<>("amount");
+			column.setPrefWidth(200);
+			column.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue().amount));
+			table = new JFXTreeTableView<>(new RecursiveTreeItem<>(FXCollections.observableArrayList(new Row(1234.5), new Row(7)), RecursiveTreeObject::getChildren), null);
+			table.setShowRoot(false);
+			table.getColumns().add(column);
+			stage = new Stage();
+			stage.setScene(new Scene(table, 300, 200));
+			stage.show();
+			table.layout();
+		});
+	}
+
+	@After
+	public void tearDown(){
+		FXTestUtils.runAndWait(() -> stage.hide());
+	}
+
+	/*
+	 * formats the amounts with the locale of the column
+	 */
+	private Function<Double, String> numberFormatter(){
+		return value -> {
+			formats.incrementAndGet();
+			return NumberFormat.getNumberInstance(column.getLocale()).format(value);
+		};
+	}
+
+	private String text(int index){
+		table.layout();
+		for (Node node : table.lookupAll(".tree-table-cell")) {
+			TreeTableCell<?, ?> cell = (TreeTableCell<?, ?>) node;
+			if(cell.getTableColumn() == column && cell.getIndex() == index) return cell.getText();
+		}
+		return null;
+	}
+
+	@Test
+	public void valuesAreFormattedOnce(){
+		FXTestUtils.runAndWait(() -> {
+			// without formatter the value is shown as is
+			assertEquals("1234.5", column.getFormattedText(1234.5));
+			column.setLocale(Locale.US);
+			column.setFormatter(numberFormatter());
+			Double value = 1234.5;
+			assertEquals("1,234.5", column.getFormattedText(value));
+			assertEquals("1,234.5", column.getFormattedText(value));
+			assertEquals(null, column.getFormattedText(null));
+			formats.set(0);
+			column.getFormattedText(value);
+			assertEquals(0, formats.get());
+		});
+	}
+
+	@Test
+	public void shownCellsFollowTheFormatter(){
+		FXTestUtils.runAndWait(() -> {
+			assertEquals("1234.5", text(0));
+			column.setLocale(Locale.US);
+			column.setFormatter(numberFormatter());
+			assertEquals("1,234.5", text(0));
+			assertEquals("7", text(1));
+			column.setFormatter(value -> "$" + value);
+			assertEquals("$1234.5", text(0));
+		});
+	}
+
+	@Test
+	public void shownCellsFollowTheLocale(){
+		FXTestUtils.runAndWait(() -> {
+			column.setLocale(Locale.US);
+			column.setFormatter(numberFormatter());
+			assertEquals("1,234.5", text(0));
+			formats.set(0);
+			// the cached texts are dropped with the locale
+			column.setLocale(Locale.GERMANY);
+			assertEquals("1.234,5", text(0));
+			assertNotNull(text(1));
+			assertEquals(2, formats.get());
+		});
+	}
+}
@@ -0,0 +1,488 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn.SortType;
+import javafx.util.Duration;
+
+public class JFXTreeTableViewTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final int id;
+		final String name;
+
+		Row(int id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+
+	private static final int ROW_COUNT = 20_000;
+
+	private JFXTreeTableView<Row> table;
+	private JFXTreeTableColumn<Row, Integer> idColumn;
+	private JFXTreeTableColumn<Row, String> nameColumn;
+	private final AtomicInteger offThreadReads = new AtomicInteger();
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			ObservableList<Row> rows = FXCollections.observableArrayList();
+			for (int i = 0; i < ROW_COUNT; i++) rows.add(new Row((i * 7919) % ROW_COUNT, "name " + (i % 10)));
+			idColumn = new JFXTreeTableColumn<>("id");
+			idColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue().id));
+			idColumn.setIntKeyExtractor(row -> row.id);
+			// the name column has no key extractor, its keys are read through the cell value factory
+			nameColumn = new JFXTreeTableColumn<>("name");
+			nameColumn.setCellValueFactory(param -> {
+				if(!Platform.isFxApplicationThread()) offThreadReads.incrementAndGet();
+				return new ReadOnlyObjectWrapper<>(param.getValue().getValue().name);
+			});
+			table = new JFXTreeTableView<>(new RecursiveTreeItem<>(rows, RecursiveTreeObject::getChildren), null);
+			table.setShowRoot(false);
+			table.getColumns().add(nameColumn);
+			table.getColumns().add(idColumn);
+			table.setAsyncSorting(true);
+		});
+	}
+
+	private static void await(BooleanSupplier condition){
+		long timeout = System.currentTimeMillis() + 10_000;
+		while(!FXTestUtils.callAndWait(condition::getAsBoolean)){
+			assertTrue("timed out", System.currentTimeMillis() < timeout);
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+		}
+	}
+
+	private boolean sorted(){
+		for (int i = 1; i < ROW_COUNT; i++) {
+			Row previous = table.getRoot().getChildren().get(i - 1).getValue();
+			Row row = table.getRoot().getChildren().get(i).getValue();
+			int result = previous.name.compareTo(row.name);
+			if(result == 0) result = Integer.compare(row.id, previous.id);
+			if(result > 0) return false;
+		}
+		return true;
+	}
+
+	@Test
+	public void asyncSortReadsTheKeysOnTheFXThread(){
+		FXTestUtils.runAndWait(() -> {
+			idColumn.setSortType(SortType.DESCENDING);
+			table.getSortOrder().setAll(nameColumn, idColumn);
+		});
+		await(this::sorted);
+		assertEquals(0, offThreadReads.get());
+		assertEquals(ROW_COUNT, (int) FXTestUtils.callAndWait(() -> table.getRoot().getChildren().size()));
+	}
+
+	/*
+	 * lazy tree of a root row with three branches of four children each, the branch 3 has no even child
+	 */
+	private JFXTreeTableView<Row> lazyTable(){
+		Row root = new Row(0, "root");
+		for (int branch : new int[]{1, 3, 5}) {
+			Row row = new Row(branch, "branch");
+			for (int i = 0; i < 4; i++) row.getChildren().add(new Row(branch * 10 + (branch == 3 ? 2 * i + 1 : i), "child"));
+			root.getChildren().add(row);
+		}
+		JFXTreeTableView<Row> lazyTable = new JFXTreeTableView<>(new RecursiveTreeItem<>(root, null, RecursiveTreeObject::getChildren, true), null);
+		lazyTable.setShowRoot(false);
+		lazyTable.setFilterDelay(Duration.ZERO);
+		return lazyTable;
+	}
+
+	private static int count(JFXTreeTableView<Row> table){
+		return FXTestUtils.callAndWait(table::getCurrentItemsCount);
+	}
+
+	/*
+	 * expands a branch, the table view creates its children to show them
+	 */
+	private static void expand(JFXTreeTableView<Row> table, int index){
+		FXTestUtils.runAndWait(() -> {
+			table.getRoot().getChildren().get(index).setExpanded(true);
+			table.getExpandedItemCount();
+		});
+	}
+
+	private static void filter(JFXTreeTableView<Row> table, Predicate<TreeItem<Row>> predicate) throws Exception {
+		FXTestUtils.callAndWait(() -> {
+			table.setPredicate(predicate);
+			return table.getFilterCompletion();
+		}).get(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void lazyItemsKeepTheirCountWhenExpanded(){
+		JFXTreeTableView<Row> lazyTable = FXTestUtils.callAndWait(this::lazyTable);
+		assertEquals(16, count(lazyTable));
+		expand(lazyTable, 0);
+		assertTrue(FXTestUtils.callAndWait(() -> ((RecursiveTreeItem<Row>) lazyTable.getRoot().getChildren().get(0)).isMaterialized()));
+		assertEquals(16, count(lazyTable));
+	}
+
+	@Test
+	public void lazyItemsCountFollowsAddedAndRemovedItems(){
+		JFXTreeTableView<Row> lazyTable = FXTestUtils.callAndWait(this::lazyTable);
+		ObservableList<Row> branches = lazyTable.getRoot().getValue().getChildren();
+		expand(lazyTable, 0);
+		FXTestUtils.runAndWait(() -> {
+			Row branch = new Row(7, "branch");
+			branch.getChildren().addAll(new Row(70, "child"), new Row(71, "child"));
+			branches.add(branch);
+		});
+		assertEquals(19, count(lazyTable));
+		// an unmaterialized branch is removed with its source
+		FXTestUtils.runAndWait(() -> branches.remove(1));
+		assertEquals(14, count(lazyTable));
+		FXTestUtils.runAndWait(() -> branches.get(0).getChildren().remove(0));
+		assertEquals(13, count(lazyTable));
+		FXTestUtils.runAndWait(() -> branches.get(0).getChildren().add(new Row(14, "child")));
+		assertEquals(14, count(lazyTable));
+	}
+
+	@Test
+	public void lazyItemsCountFollowsTheFilter() throws Exception {
+		JFXTreeTableView<Row> lazyTable = FXTestUtils.callAndWait(this::lazyTable);
+		// the branch 3 is hidden, the others only keep their two even children
+		filter(lazyTable, item -> item.getValue().id % 2 == 0);
+		assertEquals(7, count(lazyTable));
+		expand(lazyTable, 0);
+		assertEquals(Arrays.asList(10, 12), FXTestUtils.callAndWait(() -> ids(lazyTable.getRoot().getChildren().get(0).getChildren())));
+		assertEquals(7, count(lazyTable));
+		// the unmaterialized branch 5 stays shown, with less children
+		filter(lazyTable, item -> item.getValue().id % 2 == 0 && item.getValue().id < 52);
+		assertEquals(6, count(lazyTable));
+		filter(lazyTable, item -> true);
+		assertEquals(16, count(lazyTable));
+	}
+
+	private static List<Integer> ids(List<TreeItem<Row>> items){
+		List<Integer> ids = new ArrayList<>();
+		for (TreeItem<Row> item : items) ids.add(item.getValue().id);
+		return ids;
+	}
+	static class Member extends RecursiveTreeObject<Member> {
+		final int id;
+		final StringProperty team;
+
+		Member(int id, String team) {
+			this.id = id;
+			this.team = new SimpleStringProperty(team);
+		}
+	}
+
+	/*
+	 * table of the members grouped by team, the members are the children of the root row
+	 */
+	private static JFXTreeTableView<Member> groupedTable(Member root){
+		JFXTreeTableView<Member> groupedTable = new JFXTreeTableView<>(new RecursiveTreeItem<>(root, RecursiveTreeObject.childrenFactory()), null);
+		JFXTreeTableColumn<Member, String> teamColumn = new JFXTreeTableColumn<>("team");
+		// the data rows show their team in the grouped column, the team changes are tracked
+		teamColumn.setCellValueFactory(param -> RecursiveTreeObject.isGroupRow(param.getValue().getValue()) 
+				? teamColumn.getComputedValue(param) : param.getValue().getValue().team);
+		groupedTable.getColumns().add(teamColumn);
+		groupedTable.setGroupedValuesTracked(true);
+		groupedTable.group(teamColumn);
+		return groupedTable;
+	}
+
+	/*
+	 * the member ids of every group, checks that the group items mirror their children source
+	 */
+	private static Map<Object, List<Integer>> groups(JFXTreeTableView<Member> table){
+		return FXTestUtils.callAndWait(() -> {
+			Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+			for (TreeItem<Member> group : table.getRoot().getChildren()) {
+				List<Integer> ids = new ArrayList<>();
+				for (TreeItem<Member> item : group.getChildren()) ids.add(item.getValue().id);
+				List<Member> source = new ArrayList<>();
+				for (TreeItem<Member> item : ((RecursiveTreeItem<Member>) group).originalItems) source.add(item.getValue());
+				// the group rows are not members
+				RecursiveTreeObject<?> value = (RecursiveTreeObject<?>) ((TreeItem<?>) group).getValue();
+				assertEquals(source, value.getChildren());
+				groups.put(value.getGroupedValue(), ids);
+			}
+			return groups;
+		});
+	}
+
+	private static Map<Object, List<Integer>> groups(Object... groups){
+		Map<Object, List<Integer>> map = new LinkedHashMap<>();
+		for (int i = 0; i < groups.length; i += 2) map.put(groups[i], Arrays.asList((Integer[]) groups[i + 1]));
+		return map;
+	}
+
+	private static Member[] members(Member root, String... teams){
+		Member[] members = new Member[teams.length];
+		for (int i = 0; i < teams.length; i++) members[i] = new Member(i + 1, teams[i]);
+		root.getChildren().setAll(members);
+		return members;
+	}
+
+	@Test
+	public void groupsFollowTheAddedAndRemovedItems(){
+		Member root = new Member(0, null);
+		Member[] members = members(root, "a", "b", "a");
+		JFXTreeTableView<Member> groupedTable = FXTestUtils.callAndWait(() -> groupedTable(root));
+		assertEquals(groups("a", new Integer[]{1, 3}, "b", new Integer[]{2}), groups(groupedTable));
+
+		FXTestUtils.runAndWait(() -> root.getChildren().addAll(new Member(4, "c"), new Member(5, "b")));
+		assertEquals(groups("a", new Integer[]{1, 3}, "b", new Integer[]{2, 5}, "c", new Integer[]{4}), groups(groupedTable));
+		FXTestUtils.runAndWait(() -> root.getChildren().remove(members[1]));
+		assertEquals(groups("a", new Integer[]{1, 3}, "b", new Integer[]{5}, "c", new Integer[]{4}), groups(groupedTable));
+		// the empty group is removed
+		FXTestUtils.runAndWait(() -> root.getChildren().remove(root.getChildren().size() - 1));
+		assertEquals(groups("a", new Integer[]{1, 3}, "c", new Integer[]{4}), groups(groupedTable));
+	}
+
+	@Test
+	public void groupedItemsMoveWhenTheirValueChanges(){
+		Member root = new Member(0, null);
+		Member[] members = members(root, "a", "b", "a");
+		JFXTreeTableView<Member> groupedTable = FXTestUtils.callAndWait(() -> groupedTable(root));
+		// the moved items keep the source order in their new group
+		FXTestUtils.runAndWait(() -> members[0].team.set("b"));
+		assertEquals(groups("a", new Integer[]{3}, "b", new Integer[]{1, 2}), groups(groupedTable));
+		FXTestUtils.runAndWait(() -> members[2].team.set("c"));
+		assertEquals(groups("b", new Integer[]{1, 2}, "c", new Integer[]{3}), groups(groupedTable));
+	}
+
+	/*
+	 * flat table of the rows 0 to size - 1
+	 */
+	private static JFXTreeTableView<Row> flatTable(int size, Duration filterDelay){
+		ObservableList<Row> rows = FXCollections.observableArrayList();
+		for (int i = 0; i < size; i++) rows.add(new Row(i, "row"));
+		JFXTreeTableView<Row> flatTable = new JFXTreeTableView<>(new RecursiveTreeItem<>(rows, RecursiveTreeObject::getChildren), null);
+		flatTable.setShowRoot(false);
+		flatTable.setFilterDelay(filterDelay);
+		return flatTable;
+	}
+
+	/*
+	 * predicate that counts its tests
+	 */
+	private static Predicate<TreeItem<Row>> counting(AtomicInteger tests, Predicate<TreeItem<Row>> predicate){
+		return item -> {
+			tests.incrementAndGet();
+			return predicate.test(item);
+		};
+	}
+
+	@Test
+	public void predicateBurstsAreFilteredOnce() throws Exception {
+		JFXTreeTableView<Row> flatTable = FXTestUtils.callAndWait(() -> flatTable(100, Duration.millis(200)));
+		List<AtomicInteger> tests = new ArrayList<>();
+		for (int i = 0; i < 10; i++) tests.add(new AtomicInteger());
+		CompletableFuture<Void> completion = FXTestUtils.callAndWait(() -> {
+			for (int i = 0; i < tests.size(); i++) {
+				final int minimum = i;
+				flatTable.setPredicate(counting(tests.get(i), item -> item.getValue().id >= minimum));
+			}
+			return flatTable.getFilterCompletion();
+		});
+		// the filter waits for the end of the burst
+		assertFalse(completion.isDone());
+		completion.get(10, TimeUnit.SECONDS);
+		for (int i = 0; i < tests.size() - 1; i++) assertEquals(0, tests.get(i).get());
+		assertEquals(100, tests.get(tests.size() - 1).get());
+		assertEquals(91, count(flatTable));
+	}
+
+	@Test
+	public void supersededFilterRunsAreCancelled() throws Exception {
+		JFXTreeTableView<Row> flatTable = FXTestUtils.callAndWait(() -> flatTable(100, Duration.ZERO));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch superseded = new CountDownLatch(1);
+		AtomicInteger firstTests = new AtomicInteger();
+		CompletableFuture<Void> first = FXTestUtils.callAndWait(() -> {
+			flatTable.setPredicate(counting(firstTests, item -> {
+				started.countDown();
+				try {
+					superseded.await();
+				} catch (InterruptedException e) {
+					throw new AssertionError(e);
+				}
+				return true;
+			}));
+			return flatTable.getFilterCompletion();
+		});
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		CompletableFuture<Void> second = FXTestUtils.callAndWait(() -> {
+			flatTable.setPredicate(item -> item.getValue().id % 2 == 0);
+			return flatTable.getFilterCompletion();
+		});
+		// the superseded run completes with the latest one
+		assertSame(first, second);
+		superseded.countDown();
+		second.get(10, TimeUnit.SECONDS);
+		// the first run stopped at the next item, its result isn't shown
+		assertEquals(1, firstTests.get());
+		assertEquals(50, count(flatTable));
+		assertTrue(FXTestUtils.callAndWait(() -> flatTable.getFilterCompletion().isDone()));
+	}
+
+	@Test
+	public void filterCompletionFailsWithTheFilter() throws Exception {
+		JFXTreeTableView<Row> flatTable = FXTestUtils.callAndWait(() -> flatTable(10, Duration.ZERO));
+		CompletableFuture<Void> completion = FXTestUtils.callAndWait(() -> {
+			flatTable.setPredicate(item -> {
+				throw new IllegalStateException("failed");
+			});
+			return flatTable.getFilterCompletion();
+		});
+		try {
+			completion.get(10, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		// the next predicate gets a new future
+		filter(flatTable, item -> item.getValue().id < 3);
+		assertEquals(3, count(flatTable));
+	}
+
+	@Test
+	public void groupedItemsAreFiltered() throws Exception {
+		Member root = new Member(0, null);
+		members(root, "a", "b", "a", "c", "b");
+		JFXTreeTableView<Member> groupedTable = FXTestUtils.callAndWait(() -> {
+			JFXTreeTableView<Member> table = groupedTable(root);
+			table.setFilterDelay(Duration.ZERO);
+			return table;
+		});
+		FXTestUtils.callAndWait(() -> {
+			groupedTable.setPredicate(item -> item.getValue().id % 2 == 1);
+			return groupedTable.getFilterCompletion();
+		}).get(10, TimeUnit.SECONDS);
+		// the groups without visible members are hidden
+		assertEquals(groups("a", new Integer[]{1, 3}, "b", new Integer[]{5}), shownGroups(groupedTable));
+		// the members shown again are back at their place
+		FXTestUtils.callAndWait(() -> {
+			groupedTable.setPredicate(null);
+			return groupedTable.getFilterCompletion();
+		}).get(10, TimeUnit.SECONDS);
+		assertEquals(groups("a", new Integer[]{1, 3}, "b", new Integer[]{2, 5}, "c", new Integer[]{4}), shownGroups(groupedTable));
+	}
+
+	/*
+	 * the member ids of the shown groups
+	 */
+	private static Map<Object, List<Integer>> shownGroups(JFXTreeTableView<Member> table){
+		return FXTestUtils.callAndWait(() -> {
+			Map<Object, List<Integer>> groups = new LinkedHashMap<>();
+			for (TreeItem<Member> group : table.getRoot().getChildren()) {
+				List<Integer> ids = new ArrayList<>();
+				for (TreeItem<Member> item : group.getChildren()) ids.add(item.getValue().id);
+				groups.put(((RecursiveTreeObject<?>) ((TreeItem<?>) group).getValue()).getGroupedValue(), ids);
+			}
+			return groups;
+		});
+	}
+
+	@Test
+	public void nestedBatchUpdatesShowTheChangesOnce() throws Exception {
+		Row root = new Row(-1, "root");
+		ObservableList<Row> rows = root.getChildren();
+		for (int i = 0; i < 5; i++) rows.add(new Row(i, "row"));
+		AtomicInteger changes = new AtomicInteger();
+		JFXTreeTableView<Row> flatTable = FXTestUtils.callAndWait(() -> {
+			JFXTreeTableView<Row> table = new JFXTreeTableView<>(new RecursiveTreeItem<>(root, RecursiveTreeObject::getChildren), null);
+			table.setShowRoot(false);
+			table.setFilterDelay(Duration.ZERO);
+			// sorted in reverse order, the batch keeps the order of the shown rows
+			FXCollections.sort(table.getRoot().getChildren(), (a, b) -> Integer.compare(b.getValue().id, a.getValue().id));
+			table.getRoot().getChildren().addListener((ListChangeListener<TreeItem<Row>>) change -> changes.incrementAndGet());
+			return table;
+		});
+		CompletableFuture<Void> filtered = FXTestUtils.callAndWait(() -> {
+			int count = flatTable.getCurrentItemsCount();
+			flatTable.beginUpdate();
+			flatTable.batch(() -> {
+				rows.remove(1);
+				rows.add(new Row(5, "row"));
+			});
+			// the inner batch doesn't end the outer one
+			assertEquals(Arrays.asList(4, 3, 2, 1, 0), ids(flatTable.getRoot().getChildren()));
+			assertEquals(count, flatTable.getCurrentItemsCount());
+			rows.add(0, new Row(6, "row"));
+			flatTable.setPredicate(item -> item.getValue().id != 3);
+			assertEquals(0, changes.get());
+			flatTable.endUpdate();
+			assertEquals(1, changes.get());
+			assertEquals(Arrays.asList(4, 3, 2, 6, 0, 5), ids(flatTable.getRoot().getChildren()));
+			assertEquals(count + 1, flatTable.getCurrentItemsCount());
+			// the predicate set during the batch is applied once it ended
+			return flatTable.getFilterCompletion();
+		});
+		filtered.get(10, TimeUnit.SECONDS);
+		assertEquals(Arrays.asList(4, 2, 6, 0, 5), FXTestUtils.callAndWait(() -> ids(flatTable.getRoot().getChildren())));
+		try {
+			FXTestUtils.runAndWait(flatTable::endUpdate);
+			fail();
+		} catch (IllegalStateException e) {
+			// unbalanced
+		}
+	}
+}
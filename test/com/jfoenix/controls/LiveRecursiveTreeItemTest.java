@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.control.TreeItem;
+
+public class LiveRecursiveTreeItemTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final int value;
+
+		Row(int value) {
+			this.value = value;
+		}
+	}
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	private static List<Row> rows(int from, int to){
+		List<Row> rows = new ArrayList<>();
+		for (int i = from; i < to; i++) rows.add(new Row(i));
+		return rows;
+	}
+
+	private static List<Integer> values(List<TreeItem<Row>> items){
+		List<Integer> values = new ArrayList<>();
+		for (TreeItem<Row> item : items) values.add(item.getValue().value);
+		return values;
+	}
+
+	private static void append(LiveRecursiveTreeItem<Row> live, List<Row> rows){
+		live.appendAll(rows);
+		FXTestUtils.runAndWait(live::drain);
+	}
+
+	@Test
+	public void oldestRowsAreTrimmedInBatches(){
+		LiveRecursiveTreeItem<Row> live = new LiveRecursiveTreeItem<>(64);
+		int[] removals = new int[1];
+		FXTestUtils.runAndWait(() -> live.getChildren().addListener((ListChangeListener<TreeItem<Row>>) change -> {
+			while(change.next()) if(change.wasRemoved()) removals[0]++;
+		}));
+		append(live, rows(0, 64));
+		assertEquals(0, removals[0]);
+		// one row over the capacity trims a batch of capacity / 8 rows
+		append(live, rows(64, 65));
+		assertEquals(1, removals[0]);
+		assertEquals(56, live.getChildren().size());
+		assertEquals(9, (int) values(live.getChildren()).get(0));
+		// the following rows are appended without removals until the capacity is exceeded again
+		for (int i = 65; i < 73; i++) append(live, rows(i, i + 1));
+		assertEquals(1, removals[0]);
+		assertEquals(64, live.getChildren().size());
+		append(live, rows(73, 74));
+		assertEquals(2, removals[0]);
+		assertEquals(56, live.getChildren().size());
+		assertEquals(18, (int) values(live.getChildren()).get(0));
+		assertEquals(values(live.getChildren()), values(live.filteredItems));
+	}
+
+	@Test
+	public void moreRowsThanTheCapacityAreQueued(){
+		LiveRecursiveTreeItem<Row> live = new LiveRecursiveTreeItem<>(64);
+		append(live, rows(0, 10));
+		append(live, rows(10, 200));
+		assertEquals(56, live.getChildren().size());
+		assertEquals(144, (int) values(live.getChildren()).get(0));
+		assertEquals(199, (int) values(live.getChildren()).get(55));
+	}
+
+	@Test
+	public void sortedChildrenAreTrimmed(){
+		LiveRecursiveTreeItem<Row> live = new LiveRecursiveTreeItem<>(64);
+		append(live, rows(0, 64));
+		FXTestUtils.runAndWait(() -> live.getChildren().sort(Comparator.comparing((TreeItem<Row> item) -> item.getValue().value).reversed()));
+		append(live, rows(64, 65));
+		List<Integer> values = values(live.getChildren());
+		assertEquals(56, values.size());
+		assertEquals(63, (int) values.get(0));
+		assertEquals(9, (int) values.get(54));
+		assertEquals(64, (int) values.get(55));
+	}
+}
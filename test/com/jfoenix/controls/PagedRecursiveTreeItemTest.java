@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.datamodels.treetable.ColumnFilter;
+import com.jfoenix.controls.datamodels.treetable.ColumnFilter.Criterion;
+import com.jfoenix.controls.datamodels.treetable.ColumnFilter.Operator;
+import com.jfoenix.controls.datamodels.treetable.PagedDataProvider;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.scene.Scene;
+import javafx.scene.control.TreeItem;
+import javafx.stage.Stage;
+
+public class PagedRecursiveTreeItemTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final int id;
+
+		Row(int id) {
+			this.id = id;
+		}
+	}
+
+	/*
+	 * stand-in provider of a generated data set
+	 */
+	static class GeneratedProvider implements PagedDataProvider<Row> {
+		final AtomicInteger fetches = new AtomicInteger();
+		final int rowCount;
+
+		GeneratedProvider(int rowCount) {
+			this.rowCount = rowCount;
+		}
+
+		@Override
+		public int getRowCount() {
+			return rowCount;
+		}
+
+		@Override
+		public List<Row> fetch(int from, int to) {
+			fetches.incrementAndGet();
+			List<Row> rows = new ArrayList<>(to - from);
+			for (int i = from; i < to; i++) rows.add(new Row(i));
+			return rows;
+		}
+	}
+
+	private static final int ROW_COUNT = 100_000;
+	private static final int PAGE_SIZE = 50;
+
+	private GeneratedProvider provider;
+	private PagedRecursiveTreeItem<Row> paged;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		provider = new GeneratedProvider(ROW_COUNT);
+		paged = new PagedRecursiveTreeItem<>(provider, PAGE_SIZE, 2);
+		await(() -> paged.getChildren().size() == ROW_COUNT);
+	}
+
+	/*
+	 * waits until the loaded pages are applied on the FX thread
+	 */
+	private static void await(BooleanSupplier condition){
+		long timeout = System.currentTimeMillis() + 10_000;
+		while(!FXTestUtils.callAndWait(condition::getAsBoolean)){
+			assertTrue("timed out", System.currentTimeMillis() < timeout);
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+		}
+	}
+
+	private Row value(int index){
+		return FXTestUtils.callAndWait(() -> paged.getChildren().get(index).getValue());
+	}
+
+	private boolean loaded(int from, int to){
+		for (int i = from; i < to; i++) {
+			Row row = paged.getChildren().get(i).getValue();
+			if(row == null || row.id != i) return false;
+		}
+		return true;
+	}
+
+	private void render(Object[] tableRows, int from){
+		FXTestUtils.runAndWait(() -> {
+			for (int i = 0; i < tableRows.length; i++) paged.render(tableRows[i], from + i);
+		});
+	}
+
+	private static Object[] tableRows(int count){
+		Object[] tableRows = new Object[count];
+		for (int i = 0; i < count; i++) tableRows[i] = new Object();
+		return tableRows;
+	}
+
+	@Test
+	public void onlyTheLoadedPagesHaveValues(){
+		render(tableRows(20), 0);
+		await(() -> loaded(0, 2 * PAGE_SIZE));
+		int treeItems = FXTestUtils.callAndWait(() -> {
+			Map<TreeItem<Row>, Boolean> distinct = new IdentityHashMap<>();
+			for (TreeItem<Row> child : paged.getChildren()) distinct.put(child, Boolean.TRUE);
+			return distinct.size();
+		});
+		// every row has its own tree item, so the rows can be told apart before they are loaded
+		assertEquals(ROW_COUNT, treeItems);
+		assertEquals(2, provider.fetches.get());
+		assertNull(value(2 * PAGE_SIZE));
+		assertNull(value(ROW_COUNT - 1));
+	}
+
+	/*
+	 * provider that translates the id criteria into the range of the fetched ids
+	 */
+	static class RangeProvider extends GeneratedProvider {
+		final JFXTreeTableColumn<Row, Integer> idColumn;
+		final List<Object> filters = new ArrayList<>();
+		int minimum = 0;
+
+		RangeProvider(int rowCount, JFXTreeTableColumn<Row, Integer> idColumn) {
+			super(rowCount);
+			this.idColumn = idColumn;
+		}
+
+		@Override
+		public boolean isFilterable() {
+			return true;
+		}
+
+		@Override
+		public void filter(Predicate<TreeItem<Row>> predicate) {
+			filters.add(predicate);
+		}
+
+		@Override
+		public void filter(ColumnFilter<Row> filter) {
+			filters.add(filter.getCriteria());
+			minimum = 0;
+			for (Criterion<Row> criterion : filter.getCriteria())
+				if(criterion.getColumn() == idColumn && criterion.getOperator() == Operator.GREATER_THAN)
+					minimum = (Integer) criterion.getValue() + 1;
+		}
+
+		@Override
+		public int getRowCount() {
+			return rowCount - minimum;
+		}
+
+		@Override
+		public List<Row> fetch(int from, int to) {
+			return super.fetch(minimum + from, minimum + to);
+		}
+	}
+
+	@Test
+	public void columnFiltersArePassedToTheProvider(){
+		JFXTreeTableColumn<Row, Integer> idColumn = FXTestUtils.callAndWait(() -> new JFXTreeTableColumn<>("id"));
+		RangeProvider rangeProvider = new RangeProvider(ROW_COUNT, idColumn);
+		PagedRecursiveTreeItem<Row> filtered = FXTestUtils.callAndWait(() -> new PagedRecursiveTreeItem<>(rangeProvider, PAGE_SIZE, 2));
+		await(() -> filtered.getChildren().size() == ROW_COUNT);
+
+		ColumnFilter<Row> filter = new ColumnFilter<Row>().and(idColumn, Operator.GREATER_THAN, ROW_COUNT - 101);
+		// the table filter runs in the background
+		assertTrue(filtered.applyPredicate(filter, () -> false, null));
+		await(() -> filtered.getChildren().size() == 100);
+		assertEquals(1, rangeProvider.filters.size());
+		assertEquals(filter.getCriteria(), rangeProvider.filters.get(0));
+		FXTestUtils.runAndWait(() -> filtered.render(new Object(), 0));
+		await(() -> filtered.getChildren().get(0).getValue() != null);
+		assertEquals(ROW_COUNT - 100, (int) FXTestUtils.callAndWait(() -> filtered.getChildren().get(0).getValue().id));
+
+		// the other predicates are passed as is
+		Predicate<TreeItem<Row>> predicate = item -> true;
+		assertTrue(filtered.applyPredicate(predicate, () -> false, null));
+		assertEquals(predicate, rangeProvider.filters.get(1));
+	}
+
+	@Test
+	public void renderedPagesAreNotUnloaded(){
+		// the rendered rows span 3 pages while only 2 pages are cached
+		render(tableRows(2 * PAGE_SIZE), PAGE_SIZE - 5);
+		await(() -> loaded(PAGE_SIZE - 5, 3 * PAGE_SIZE - 5));
+		// the next page is prefetched then unloaded, as it's not rendered
+		await(() -> provider.fetches.get() == 4);
+		await(() -> paged.getChildren().get(3 * PAGE_SIZE).getValue() == null);
+		for (int i = PAGE_SIZE - 5; i < 3 * PAGE_SIZE - 5; i++) assertNotNull(value(i));
+	}
+
+	@Test
+	public void releasedPagesAreUnloadedAndLoadedAgain(){
+		Object[] tableRows = tableRows(20);
+		render(tableRows, 0);
+		await(() -> loaded(0, 20));
+		// scroll far away, the first page is no longer rendered
+		render(tableRows, 10 * PAGE_SIZE);
+		await(() -> loaded(10 * PAGE_SIZE, 10 * PAGE_SIZE + 20));
+		await(() -> paged.getChildren().get(0).getValue() == null);
+		TreeItem<Row> firstRow = FXTestUtils.callAndWait(() -> paged.getChildren().get(0));
+		int fetches = provider.fetches.get();
+		// scroll back, the page is fetched again into the same tree items
+		render(tableRows, 0);
+		await(() -> loaded(0, 20));
+		assertTrue(provider.fetches.get() > fetches);
+		assertTrue(firstRow == FXTestUtils.callAndWait(() -> paged.getChildren().get(0)));
+	}
+
+	@Test
+	public void tableRowsLoadTheirPages(){
+		Stage stage = FXTestUtils.callAndWait(() -> {
+			JFXTreeTableColumn<Row, String> column = new JFXTreeTableColumn<>("id");
+			column.setCellValueFactory(param -> new SimpleStringProperty(
+					param.getValue().getValue() == null ? null : Integer.toString(param.getValue().getValue().id)));
+			JFXTreeTableView<Row> table = new JFXTreeTableView<>(paged, null);
+			table.setShowRoot(false);
+			table.getColumns().add(column);
+			Stage tableStage = new Stage();
+			tableStage.setScene(new Scene(table, 300, 400));
+			tableStage.show();
+			table.scrollTo(5 * PAGE_SIZE);
+			return tableStage;
+		});
+		try{
+			await(() -> loaded(5 * PAGE_SIZE, 5 * PAGE_SIZE + 10));
+			JFXTreeTableView<?> table = (JFXTreeTableView<?>) stage.getScene().getRoot();
+			await(() -> table.getTreeItem(5 * PAGE_SIZE).getValue() != null);
+			assertEquals(ROW_COUNT, (int) FXTestUtils.callAndWait(table::getExpandedItemCount));
+		}finally{
+			FXTestUtils.runAndWait(stage::hide);
+		}
+	}
+}
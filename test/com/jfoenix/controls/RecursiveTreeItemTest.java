@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.RecursiveTreeItem.NarrowingPredicate;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+
+public class RecursiveTreeItemTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final int value;
+
+		Row(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public String toString() {
+			return Integer.toString(value);
+		}
+	}
+
+	private ObservableList<Row> source;
+	private RecursiveTreeItem<Row> root;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		Row parent = new Row(0);
+		source = parent.getChildren();
+		root = new RecursiveTreeItem<>(parent, RecursiveTreeObject::getChildren);
+		for (int value : new int[]{5, 3, 8, 1, 4}) source.add(new Row(value));
+	}
+
+	private static List<Integer> values(List<TreeItem<Row>> items){
+		List<Integer> values = new ArrayList<>();
+		for (TreeItem<Row> item : items) values.add(item.getValue().value);
+		return values;
+	}
+
+	private void hideOdd(){
+		// the filtered items are applied on the FX thread
+		FXTestUtils.runAndWait(() -> root.setPredicate(item -> item.getValue().value % 2 == 0));
+	}
+
+	@Test
+	public void permutationsAreMirrored(){
+		TreeItem<Row> first = root.getChildren().get(0);
+		FXCollections.sort(source, Comparator.comparingInt(row -> row.value));
+		assertEquals(Arrays.asList(1, 3, 4, 5, 8), values(root.originalItems));
+		assertEquals(Arrays.asList(1, 3, 4, 5, 8), values(root.getChildren()));
+		// the tree items are moved, not recreated
+		assertSame(first, root.getChildren().get(3));
+	}
+
+	@Test
+	public void permutationsKeepTheFilter(){
+		hideOdd();
+		FXCollections.sort(source, Comparator.comparingInt(row -> row.value));
+		assertEquals(Arrays.asList(4, 8), values(root.filteredItems));
+		assertEquals(Arrays.asList(4, 8), values(root.getChildren()));
+	}
+
+	@Test
+	public void addedItemsAreInsertedInPlace(){
+		hideOdd();
+		source.add(1, new Row(6));
+		source.add(0, new Row(2));
+		source.add(new Row(10));
+		assertEquals(Arrays.asList(2, 5, 6, 3, 8, 1, 4, 10), values(root.originalItems));
+		assertEquals(Arrays.asList(2, 6, 8, 4, 10), values(root.filteredItems));
+		assertEquals(Arrays.asList(2, 6, 8, 4, 10), values(root.getChildren()));
+	}
+
+	@Test
+	public void scatteredRemovals(){
+		List<Row> removed = Arrays.asList(source.get(0), source.get(2), source.get(4));
+		source.removeAll(removed);
+		assertEquals(Arrays.asList(3, 1), values(root.originalItems));
+		assertEquals(Arrays.asList(3, 1), values(root.getChildren()));
+	}
+
+	@Test
+	public void replacedValuesKeepTheirTreeItem(){
+		TreeItem<Row> item = root.getChildren().get(2);
+		List<Row> rows = new ArrayList<>(source);
+		source.setAll(rows);
+		assertSame(item, root.getChildren().get(2));
+		source.set(2, new Row(7));
+		assertEquals(Arrays.asList(5, 3, 7, 1, 4), values(root.getChildren()));
+	}
+
+	@Test
+	public void filteringDoesNotCreateLazyChildren(){
+		Row parent = new Row(0);
+		Row branch = new Row(1);
+		for (int value : new int[]{2, 3, 4}) branch.getChildren().add(new Row(value));
+		parent.getChildren().addAll(branch, new Row(5));
+		RecursiveTreeItem<Row> lazyRoot = new RecursiveTreeItem<>(parent, null, RecursiveTreeObject::getChildren, true);
+		// the root children are created on demand too
+		assertEquals(2, lazyRoot.getChildren().size());
+		RecursiveTreeItem<Row> branchItem = (RecursiveTreeItem<Row>) lazyRoot.getChildren().get(0);
+
+		FXTestUtils.runAndWait(() -> lazyRoot.setPredicate(item -> item.getValue().value % 2 == 0));
+		assertFalse(branchItem.isMaterialized());
+		// the branch has matching children in its source, so it stays visible
+		assertEquals(Arrays.asList(1), values(lazyRoot.getChildren()));
+
+		// its children are created when shown, filtered by the pushed predicate
+		FXTestUtils.runAndWait(() -> branchItem.setExpanded(true));
+		assertEquals(Arrays.asList(2, 4), values(branchItem.getChildren()));
+	}
+
+	@Test
+	public void lazyItemsFilteredBeforeCreatingTheirChildren(){
+		Row parent = new Row(0);
+		for (int value : new int[]{1, 2, 3, 4}) parent.getChildren().add(new Row(value));
+		RecursiveTreeItem<Row> lazyRoot = new RecursiveTreeItem<>(parent, null, RecursiveTreeObject::getChildren, true);
+		FXTestUtils.runAndWait(() -> lazyRoot.setPredicate(item -> item.getValue().value % 2 == 0));
+		assertFalse(lazyRoot.isMaterialized());
+		assertEquals(Arrays.asList(2, 4), values(lazyRoot.getChildren()));
+	}
+
+	@Test
+	public void lazyBranchesWithoutMatchingDescendantsAreHidden(){
+		Row parent = new Row(0);
+		Row matching = new Row(1);
+		matching.getChildren().addAll(new Row(2), new Row(3));
+		Row notMatching = new Row(5);
+		notMatching.getChildren().addAll(new Row(7), new Row(9));
+		// the match is two levels down
+		Row nested = new Row(11);
+		Row nestedBranch = new Row(13);
+		nestedBranch.getChildren().add(new Row(14));
+		nested.getChildren().add(nestedBranch);
+		parent.getChildren().addAll(matching, notMatching, nested);
+		RecursiveTreeItem<Row> lazyRoot = new RecursiveTreeItem<>(parent, null, RecursiveTreeObject::getChildren, true);
+		assertEquals(3, lazyRoot.getChildren().size());
+		RecursiveTreeItem<Row> notMatchingItem = (RecursiveTreeItem<Row>) lazyRoot.getChildren().get(1);
+
+		FXTestUtils.runAndWait(() -> lazyRoot.setPredicate(item -> item.getValue().value % 2 == 0));
+		assertEquals(Arrays.asList(1, 11), values(lazyRoot.getChildren()));
+		assertFalse(notMatchingItem.isMaterialized());
+		assertTrue(notMatchingItem.isLeaf());
+
+		// the lazy items created after filtering are tested the same way
+		notMatching.getChildren().add(new Row(16));
+		FXTestUtils.runAndWait(() -> lazyRoot.setPredicate(item -> item.getValue().value % 2 == 0 && item.getValue().value > 10));
+		assertEquals(Arrays.asList(5, 11), values(lazyRoot.getChildren()));
+		assertFalse(notMatchingItem.isLeaf());
+		FXTestUtils.runAndWait(() -> notMatchingItem.setExpanded(true));
+		assertEquals(Arrays.asList(16), values(notMatchingItem.getChildren()));
+	}
+
+	/*
+	 * counts the tested items
+	 */
+	private static NarrowingPredicate<Row> counting(int minimum, boolean narrowing, AtomicInteger tests){
+		return new NarrowingPredicate<Row>() {
+			@Override
+			public boolean test(TreeItem<Row> item) {
+				tests.incrementAndGet();
+				return item.getValue().value > minimum;
+			}
+
+			@Override
+			public boolean narrows(Predicate<TreeItem<Row>> previous) {
+				return narrowing && previous != null;
+			}
+		};
+	}
+
+	@Test
+	public void narrowingPredicatesOnlyTestTheVisibleItems(){
+		AtomicInteger tests = new AtomicInteger();
+		FXTestUtils.runAndWait(() -> root.setPredicate(counting(1, true, tests)));
+		assertEquals(5, tests.get());
+		assertEquals(Arrays.asList(5, 3, 8, 4), values(root.getChildren()));
+
+		tests.set(0);
+		FXTestUtils.runAndWait(() -> root.setPredicate(counting(3, true, tests)));
+		assertEquals(4, tests.get());
+		assertEquals(Arrays.asList(5, 8, 4), values(root.getChildren()));
+
+		// the other predicates test every item
+		tests.set(0);
+		FXTestUtils.runAndWait(() -> root.setPredicate(counting(4, false, tests)));
+		assertEquals(5, tests.get());
+		assertEquals(Arrays.asList(5, 8), values(root.getChildren()));
+	}
+
+	@Test
+	public void onlyTheChangedItemsAreUpdated(){
+		hideOdd();
+		List<TreeItem<Row>> shown = new ArrayList<>(root.getChildren());
+		List<ListChangeListener.Change<? extends TreeItem<Row>>> changes = new ArrayList<>();
+		List<List<Integer>> added = new ArrayList<>();
+		root.getChildren().addListener((ListChangeListener<TreeItem<Row>>) change -> {
+			while(change.next()){
+				assertFalse(change.wasRemoved());
+				added.add(values(new ArrayList<>(change.getAddedSubList())));
+			}
+			changes.add(change);
+		});
+		FXTestUtils.runAndWait(() -> root.setPredicate(item -> item.getValue().value % 2 == 0 || item.getValue().value == 3));
+		assertEquals(1, changes.size());
+		assertEquals(Arrays.asList(Arrays.asList(3)), added);
+		assertEquals(Arrays.asList(3, 8, 4), values(root.getChildren()));
+		assertSame(shown.get(0), root.getChildren().get(1));
+		assertSame(shown.get(1), root.getChildren().get(2));
+	}
+
+	@Test
+	public void shownItemsAreInsertedInSortOrder(){
+		Comparator<TreeItem<Row>> descending = (a, b) -> Integer.compare(b.getValue().value, a.getValue().value);
+		hideOdd();
+		FXTestUtils.runAndWait(() -> FXCollections.sort(root.getChildren(), descending));
+		// filtered in the calling thread, like the table filter does
+		assertTrue(root.applyPredicate(item -> true, () -> false, item -> descending));
+		assertEquals(Arrays.asList(8, 5, 4, 3, 1), values(root.getChildren()));
+		assertEquals(Arrays.asList(5, 3, 8, 1, 4), values(root.filteredItems));
+	}
+
+	@Test
+	public void itemsAddedWhileFilteringAreFiltered(){
+		AtomicInteger tests = new AtomicInteger();
+		Predicate<TreeItem<Row>> even = item -> {
+			// the source changes on the FX thread while filtering in the calling thread
+			if(tests.getAndIncrement() == 0) FXTestUtils.runAndWait(() -> {
+				source.add(0, new Row(6));
+				source.remove(2);
+			});
+			return item.getValue().value % 2 == 0;
+		};
+		assertTrue(root.applyPredicate(even, () -> false, null));
+		assertEquals(Arrays.asList(6, 5, 8, 1, 4), values(root.originalItems));
+		assertEquals(Arrays.asList(6, 8, 4), values(root.filteredItems));
+		assertEquals(Arrays.asList(6, 8, 4), values(root.getChildren()));
+	}
+
+	/*
+	 * counts the change events of the children, and the events fired outside the FX thread
+	 */
+	private static AtomicInteger[] changeEvents(TreeItem<Row> item){
+		AtomicInteger[] events = {new AtomicInteger(), new AtomicInteger()};
+		item.getChildren().addListener((ListChangeListener<TreeItem<Row>>) change -> {
+			events[0].incrementAndGet();
+			if(!Platform.isFxApplicationThread()) events[1].incrementAndGet();
+		});
+		return events;
+	}
+
+	@Test
+	public void batchUpdatesChangeEachLevelOnce(){
+		hideOdd();
+		Row branch = source.get(2);
+		branch.getChildren().addAll(new Row(20), new Row(21));
+		TreeItem<Row> branchItem = root.getChildren().get(0);
+		AtomicInteger[] rootEvents = changeEvents(root);
+		AtomicInteger[] branchEvents = changeEvents(branchItem);
+		FXTestUtils.runAndWait(() -> {
+			root.beginUpdate();
+			source.add(0, new Row(6));
+			source.remove(1);
+			source.add(new Row(10));
+			source.set(3, new Row(2));
+			branch.getChildren().add(0, new Row(22));
+			branch.getChildren().remove(1);
+			// nothing is shown until the batch ends
+			assertEquals(Arrays.asList(5, 3, 8, 1, 4), values(root.originalItems));
+			assertEquals(Arrays.asList(20, 21), values(branchItem.getChildren()));
+			assertEquals(0, rootEvents[0].get() + branchEvents[0].get());
+			assertTrue(root.endUpdate());
+		});
+		assertEquals(Arrays.asList(6, 3, 8, 2, 4, 10), values(root.originalItems));
+		assertEquals(Arrays.asList(6, 8, 2, 4, 10), values(root.getChildren()));
+		assertEquals(Arrays.asList(22, 21), values(branchItem.getChildren()));
+		// the branch keeps its tree item, one change per level
+		assertSame(branchItem, root.getChildren().get(1));
+		assertEquals(1, rootEvents[0].get());
+		assertEquals(1, branchEvents[0].get());
+	}
+
+	@Test
+	public void batchUpdatesWithoutChangesDoNothing(){
+		AtomicInteger[] events = changeEvents(root);
+		FXTestUtils.runAndWait(() -> {
+			root.beginUpdate();
+			assertFalse(root.endUpdate());
+		});
+		assertEquals(0, events[0].get());
+		// the changes are mirrored again once the batch ended
+		source.add(new Row(6));
+		assertEquals(Arrays.asList(5, 3, 8, 1, 4, 6), values(root.getChildren()));
+		assertEquals(1, events[0].get());
+	}
+
+	/*
+	 * loads the rows 0 to size - 1 with the even rows visible, and checks that they are 
+	 * attached in order with a single change on the FX thread
+	 */
+	private void assertLoaded(Function<List<Row>, CompletableFuture<Void>> loader) throws Exception {
+		hideOdd();
+		AtomicInteger[] events = changeEvents(root);
+		// more rows than a chunk, so the tree items are created in parallel
+		int size = 10_000;
+		List<Row> rows = new ArrayList<>(size);
+		List<Integer> expected = new ArrayList<>(size), expectedVisible = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			rows.add(new Row(i));
+			expected.add(i);
+			if(i % 2 == 0) expectedVisible.add(i);
+		}
+		loader.apply(rows).get(10, TimeUnit.SECONDS);
+		FXTestUtils.runAndWait(() -> {
+			assertEquals(expected, values(root.originalItems));
+			assertEquals(expectedVisible, values(root.getChildren()));
+			assertEquals(rows, source);
+		});
+		assertEquals(1, events[0].get());
+		assertEquals(0, events[1].get());
+	}
+
+	@Test
+	public void loadAllFromAStream() throws Exception {
+		assertLoaded(rows -> root.loadAll(rows.stream()));
+	}
+
+	@Test
+	public void loadAllFromASpliterator() throws Exception {
+		assertLoaded(rows -> root.loadAll(rows.spliterator()));
+	}
+
+	@Test
+	public void loadAllFromAnIterator() throws Exception {
+		assertLoaded(rows -> root.loadAll(rows.iterator()));
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+public class SearchIndexTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final String name;
+
+		Row(String name) {
+			this.name = name;
+		}
+	}
+
+	private RecursiveTreeItem<Row> root;
+	private SearchIndex<Row> index;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			JFXTreeTableColumn<Row, String> column = new JFXTreeTableColumn<>("name");
+			column.setKeyExtractor(row -> row.name);
+			root = new RecursiveTreeItem<>(FXCollections.<Row>observableArrayList(), RecursiveTreeObject::getChildren);
+			index = new SearchIndex<>(root, Arrays.<TreeTableColumn<Row, ?>>asList(column));
+		});
+	}
+
+	private static List<TreeItem<Row>> items(String... names){
+		List<TreeItem<Row>> items = new ArrayList<>();
+		for (String name : names) items.add(new TreeItem<>(new Row(name)));
+		return items;
+	}
+
+	@Test
+	public void searchFindsSubstrings(){
+		List<TreeItem<Row>> items = items("Alpha", "Beta", "alphabet", "gamma");
+		index.add(items);
+		Map<TreeItem<Row>, Boolean> result = index.search("alph");
+		assertEquals(2, result.size());
+		assertTrue(result.containsKey(items.get(0)));
+		assertTrue(result.containsKey(items.get(2)));
+		// shorter than a trigram
+		assertEquals(4, index.search("a").size());
+		assertEquals(1, index.search("mm").size());
+		assertTrue(index.search("mm").containsKey(items.get(3)));
+		assertTrue(index.search("xyz").isEmpty());
+	}
+
+	@Test
+	public void removedItemsAreNotFound(){
+		List<TreeItem<Row>> items = items("Alpha", "alphabet");
+		index.add(items);
+		index.remove(items.subList(0, 1));
+		assertFalse(index.contains(items.get(0)));
+		assertEquals(1, index.search("alp").size());
+		assertTrue(index.search("alp").containsKey(items.get(1)));
+	}
+
+	@Test
+	public void tombstonesAreCompacted(){
+		List<TreeItem<Row>> items = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) items.add(new TreeItem<>(new Row("row " + i)));
+		index.add(items);
+		// a live tail removes the oldest rows
+		index.remove(items.subList(0, 4000));
+		assertEquals(1000, index.capacity());
+
+		List<TreeItem<Row>> kept = items.subList(4000, 5000);
+		for (TreeItem<Row> item : kept) assertTrue(index.contains(item));
+		Map<TreeItem<Row>, Boolean> result = index.search("row 49");
+		assertEquals(100, result.size());
+		assertTrue(result.containsKey(items.get(4999)));
+		assertFalse(index.search("row 1").containsKey(items.get(1)));
+
+		// new ids keep increasing after the compaction
+		List<TreeItem<Row>> added = items("row new");
+		index.add(added);
+		assertTrue(index.search("new").containsKey(added.get(0)));
+	}
+
+	@Test
+	public void matchesReadsTheValues(){
+		TreeItem<Row> item = new TreeItem<>(new Row("Delta"));
+		assertTrue(index.matches(item, "elt"));
+		assertFalse(index.matches(item, "alpha"));
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.JFXTreeTableColumn.AggregateType;
+import com.jfoenix.controls.TreeTableExporter.Format;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+public class TreeTableExporterTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final String name;
+		final String group;
+		final Integer value;
+
+		Row(String name, String group, Integer value) {
+			this.name = name;
+			this.group = group;
+			this.value = value;
+		}
+	}
+
+	private JFXTreeTableView<Row> table;
+	private JFXTreeTableColumn<Row, String> nameColumn;
+	private JFXTreeTableColumn<Row, String> groupColumn;
+	private JFXTreeTableColumn<Row, Integer> valueColumn;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			nameColumn = new JFXTreeTableColumn<>("name");
+			nameColumn.setCellValueFactory(param -> nameColumn.validateValue(param) ?
+					new ReadOnlyObjectWrapper<>(param.getValue().getValue().name) : nameColumn.getComputedValue(param));
+			groupColumn = new JFXTreeTableColumn<>("category");
+			groupColumn.setCellValueFactory(param -> groupColumn.validateValue(param) ?
+					new ReadOnlyObjectWrapper<>(param.getValue().getValue().group) : groupColumn.getComputedValue(param));
+			groupColumn.setKeyExtractor(row -> row.group);
+			valueColumn = new JFXTreeTableColumn<>("value");
+			valueColumn.setCellValueFactory(param -> valueColumn.validateValue(param) ?
+					new ReadOnlyObjectWrapper<>(param.getValue().getValue().value) : valueColumn.getComputedValue(param));
+			valueColumn.setIntKeyExtractor(row -> row.value);
+			valueColumn.setAggregate(AggregateType.SUM);
+
+			table = new JFXTreeTableView<>();
+			table.getColumns().setAll(nameColumn, groupColumn, valueColumn);
+			table.setShowRoot(false);
+		});
+	}
+
+	private void setRows(Row... rows){
+		FXTestUtils.runAndWait(() -> {
+			ObservableList<Row> data = FXCollections.observableArrayList(rows);
+			table.setRoot(new RecursiveTreeItem<>(data, RecursiveTreeObject::getChildren));
+		});
+	}
+
+	private String export(TreeTableExporter<Row> exporter) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Task<Long> task = FXTestUtils.callAndWait(() -> exporter.export(Channels.newChannel(out)));
+		// the values are copied on the FX thread, so the test thread waits
+		task.get(10, TimeUnit.SECONDS);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void csvEscaping() throws Exception {
+		setRows(new Row("a,b", "x", 1), new Row("say \"hi\"", "x", 2), new Row("line\nbreak", "y", null));
+		String csv = export(new TreeTableExporter<>(table, Format.CSV));
+		assertEquals("name,category,value\n"
+				+ "\"a,b\",x,1\n"
+				+ "\"say \"\"hi\"\"\",x,2\n"
+				+ "\"line\nbreak\",y,\n", csv);
+	}
+
+	@Test
+	public void tsvEscaping() throws Exception {
+		setRows(new Row("a\tb", "x\\y", 1), new Row("line\r\nbreak", "y", 2));
+		TreeTableExporter<Row> exporter = new TreeTableExporter<>(table, Format.TSV);
+		exporter.setHeaderExported(false);
+		assertEquals("a\\tb\tx\\\\y\t1\n"
+				+ "line\\r\\nbreak\ty\t2\n", export(exporter));
+	}
+
+	@Test
+	public void jsonEscaping() throws Exception {
+		setRows(new Row("quote \" and \\", "\u0001", 1), new Row(null, "tab\t", null));
+		String json = export(new TreeTableExporter<>(table, Format.JSON_LINES));
+		assertEquals("{\"level\":0,\"name\":\"quote \\\" and \\\\\",\"category\":\"\\u0001\",\"value\":1}\n"
+				+ "{\"level\":0,\"name\":null,\"category\":\"tab\\t\",\"value\":null}\n", json);
+	}
+
+	@Test
+	public void groupsAndAggregates() throws Exception {
+		setRows(new Row("a", "x", 1), new Row("b", "y", 2), new Row("c", "x", 3));
+		FXTestUtils.runAndWait(() -> table.group(groupColumn));
+		TreeTableExporter<Row> exporter = new TreeTableExporter<>(table, Format.CSV);
+		exporter.setAggregatesExported(true);
+		assertEquals("name,category,value\n"
+				+ ",x,4.0\n"
+				+ "a,,1\n"
+				+ "c,,3\n"
+				+ ",y,2.0\n"
+				+ "b,,2\n", export(exporter));
+
+		String json = export(new TreeTableExporter<>(table, Format.JSON_LINES));
+		assertEquals("{\"level\":0,\"group\":true,\"category\":\"x\"}\n"
+				+ "{\"level\":1,\"name\":\"a\",\"category\":null,\"value\":1}\n"
+				+ "{\"level\":1,\"name\":\"c\",\"category\":null,\"value\":3}\n"
+				+ "{\"level\":0,\"group\":true,\"category\":\"y\"}\n"
+				+ "{\"level\":1,\"name\":\"b\",\"category\":null,\"value\":2}\n", json);
+	}
+
+	@Test
+	public void largeExportsAreCopiedInChunks() throws Exception {
+		Row[] rows = new Row[2000];
+		for (int i = 0; i < rows.length; i++) rows[i] = new Row("row" + i, "g", i);
+		setRows(rows);
+		TreeTableExporter<Row> exporter = new TreeTableExporter<>(table, Format.CSV);
+		exporter.setHeaderExported(false);
+		String[] lines = export(exporter).split("\n");
+		assertEquals(rows.length, lines.length);
+		assertEquals("row0,g,0", lines[0]);
+		assertEquals("row1999,g,1999", lines[1999]);
+	}
+
+	@Test
+	public void collapsedLazyItemsAreExportedFromTheirSource() throws Exception {
+		Row root = new Row("root", null, 0);
+		Row branch = new Row("branch", "x", 1);
+		Row nested = new Row("nested", "x", 2);
+		nested.getChildren().add(new Row("leaf", "y", 3));
+		branch.getChildren().addAll(nested, new Row("hidden", "y", 4));
+		root.getChildren().addAll(branch, new Row("other", "z", 5));
+		RecursiveTreeItem<Row> lazyRoot = FXTestUtils.callAndWait(() -> {
+			RecursiveTreeItem<Row> item = new RecursiveTreeItem<>(root, null, RecursiveTreeObject::getChildren, true);
+			item.setPredicate(row -> !"hidden".equals(row.getValue().name));
+			table.setRoot(item);
+			return item;
+		});
+		String json = export(new TreeTableExporter<>(table, Format.JSON_LINES));
+		assertEquals("{\"level\":0,\"name\":\"branch\",\"category\":\"x\",\"value\":1}\n"
+				+ "{\"level\":1,\"name\":\"nested\",\"category\":\"x\",\"value\":2}\n"
+				+ "{\"level\":2,\"name\":\"leaf\",\"category\":\"y\",\"value\":3}\n"
+				+ "{\"level\":0,\"name\":\"other\",\"category\":\"z\",\"value\":5}\n", json);
+		// the collapsed branch didn't create its children
+		assertFalse(FXTestUtils.callAndWait(() -> ((RecursiveTreeItem<Row>) lazyRoot.getChildren().get(0)).isMaterialized()));
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.cells.editors.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.JFXTreeTableColumn;
+import com.jfoenix.controls.JFXTreeTableView;
+import com.jfoenix.controls.RecursiveTreeItem;
+import com.jfoenix.controls.cells.editors.TextFieldEditorBuilder;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.event.Event;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+
+public class GenericEditableTreeTableCellTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final StringProperty name;
+
+		Row(String name) {
+			this.name = new SimpleStringProperty(name);
+		}
+	}
+
+	/*
+	 * text field editor whose values are validated when the test completes the validation
+	 */
+	static class AsyncTextFieldEditorBuilder extends TextFieldEditorBuilder implements AsyncEditorNodeBuilder<String> {
+		final List<CompletableFuture<String>> validations = new ArrayList<>();
+
+		@Override
+		public CompletionStage<String> validateValueAsync(String value) {
+			CompletableFuture<String> validation = new CompletableFuture<>();
+			validations.add(validation);
+			return validation;
+		}
+	}
+
+	private final AsyncTextFieldEditorBuilder builder = new AsyncTextFieldEditorBuilder();
+	private final List<String> events = new ArrayList<>();
+	private ObservableList<Row> rows;
+	private JFXTreeTableView<Row> table;
+	private JFXTreeTableColumn<Row, String> column;
+	private Stage stage;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			rows = FXCollections.observableArrayList(new Row("a"), new Row("b"));
+			column = new JFXTreeTableColumn<>("name");
+			column.setPrefWidth(200);
+			column.setCellValueFactory(param -> param.getValue().getValue().name);
+			column.setCellFactory(c -> new GenericEditableTreeTableCell<>(builder));
+			column.setOnEditCancel(event -> events.add(GenericEditableTreeTableCell.isCommitPending(event) ? "pending" : "cancel"));
+			column.setOnEditCommit(event -> {
+				events.add("commit " + event.getNewValue());
+				event.getRowValue().getValue().name.set(event.getNewValue());
+			});
+			table = new JFXTreeTableView<>(new RecursiveTreeItem<>(rows, RecursiveTreeObject::getChildren), null);
+			table.setShowRoot(false);
+			table.setEditable(true);
+			table.getColumns().add(column);
+			stage = new Stage();
+			stage.setScene(new Scene(table, 300, 200));
+			stage.show();
+			table.layout();
+		});
+	}
+
+	@After
+	public void tearDown(){
+		FXTestUtils.runAndWait(() -> stage.hide());
+	}
+
+	private GenericEditableTreeTableCell<Row, String> cell(int index){
+		for (Node node : table.lookupAll(".tree-table-cell")) {
+			if(node instanceof GenericEditableTreeTableCell && ((GenericEditableTreeTableCell<?, ?>) node).getIndex() == index)
+				return (GenericEditableTreeTableCell<Row, String>) node;
+		}
+		return null;
+	}
+
+	@Test
+	public void asyncCommitIsPendingUntilValidated(){
+		FXTestUtils.runAndWait(() -> {
+			table.edit(0, column);
+			GenericEditableTreeTableCell<Row, String> cell = cell(0);
+			assertNotNull(cell);
+			assertTrue(cell.isEditing());
+			builder.setValue("c");
+			cell.commitHelper(false);
+
+			// the cell leaves the editing state while the value is validated, 
+			// the edit cancel event tells that the commit is pending
+			assertFalse(cell.isEditing());
+			assertEquals(null, table.getEditingCell());
+			assertEquals(1, builder.validations.size());
+			assertEquals(Arrays.asList("pending"), events);
+			assertEquals("c", cell.getText());
+			assertTrue(cell.getPseudoClassStates().contains(PseudoClass.getPseudoClass("pending")));
+			builder.validations.get(0).complete("c");
+		});
+		// the commit is applied on the FX thread
+		FXTestUtils.runAndWait(() -> {});
+		FXTestUtils.runAndWait(() -> {
+			assertEquals(Arrays.asList("pending", "commit c"), events);
+			assertEquals("c", rows.get(0).name.get());
+			assertFalse(cell(0).getPseudoClassStates().contains(PseudoClass.getPseudoClass("pending")));
+			// the cell can be edited again
+			table.edit(0, column);
+			assertTrue(cell(0).isEditing());
+		});
+	}
+
+	@Test
+	public void cancelFiresTheEditCancelEvent(){
+		FXTestUtils.runAndWait(() -> {
+			table.edit(1, column);
+			GenericEditableTreeTableCell<Row, String> cell = cell(1);
+			assertTrue(cell.isEditing());
+			cell.cancelEdit();
+			assertFalse(cell.isEditing());
+			assertEquals(1, events.size());
+			assertEquals("cancel", events.get(0));
+			// the cell can be edited again
+			table.edit(1, column);
+			assertTrue(cell(1).isEditing());
+		});
+	}
+
+	/*
+	 * text field of the editor node used by the cell
+	 */
+	private Node textField(int index){
+		return ((Pane) cell(index).getGraphic()).getChildren().get(0);
+	}
+
+	private static List<Node> children(Parent parent){
+		try {
+			Method getChildren = Parent.class.getDeclaredMethod("getChildren");
+			getChildren.setAccessible(true);
+			return (List<Node>) getChildren.invoke(parent);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private void pressTab(int index){
+		Event.fireEvent(textField(index), new KeyEvent(KeyEvent.KEY_PRESSED, "", "", KeyCode.TAB, false, false, false, false));
+	}
+
+	@Test
+	public void handedOverEditorDoesNotKeepTheFocus(){
+		FXTestUtils.runAndWait(() -> {
+			column.setCellFactory(c -> new GenericEditableTreeTableCell<>(new TextFieldEditorBuilder()));
+			table.refresh();
+			table.layout();
+			table.edit(0, column);
+			GenericEditableTreeTableCell<Row, String> first = cell(0);
+			textField(0).requestFocus();
+			assertTrue(textField(0).isFocused());
+			// the edited cell leaves the row, the table doesn't take the focus back when the edit ends
+			children(first.getParent()).remove(first);
+			table.edit(1, column);
+			assertFalse(first.isEditing());
+			// the editor node is handed over without the focus of the previous edit
+			assertTrue(cell(1).isEditing());
+			assertFalse(textField(1).isFocused());
+		});
+		FXTestUtils.runAndWait(() -> {
+			table.applyCss();
+			table.layout();
+			assertTrue(cell(1).isEditing());
+			assertEquals(1, table.getEditingCell().getRow());
+			assertEquals(1, events.size());
+			assertEquals("cancel", events.get(0));
+		});
+	}
+
+	@Test
+	public void releasedCellsDoNotChangeTheEditorOfAnotherCell(){
+		FXTestUtils.runAndWait(() -> {
+			column.setCellFactory(c -> new GenericEditableTreeTableCell<>(new TextFieldEditorBuilder()));
+			table.refresh();
+			table.layout();
+			// the second cell edits with the editor released by the first cell
+			table.edit(0, column);
+			cell(0).cancelEdit();
+			table.edit(1, column);
+			GenericEditableTreeTableCell<Row, String> second = cell(1);
+			second.cancelEdit();
+			table.edit(0, column);
+			assertEquals("a", ((TextField) textField(0)).getText());
+
+			// the released cell no longer uses the editor
+			second.cancelEdit();
+			second.updateItem("b", false);
+			assertTrue(cell(0).isEditing());
+			assertEquals("a", ((TextField) textField(0)).getText());
+			assertFalse(second.getGraphic() instanceof Pane);
+		});
+	}
+
+	@Test
+	public void tabMovesToTheNestedColumnsAddedToALeafColumn(){
+		FXTestUtils.runAndWait(() -> {
+			JFXTreeTableColumn<Row, String> group = new JFXTreeTableColumn<>("group");
+			group.setCellValueFactory(param -> param.getValue().getValue().name);
+			group.setCellFactory(c -> new GenericEditableTreeTableCell<>(new TextFieldEditorBuilder()));
+			table.getColumns().add(group);
+			table.layout();
+			table.edit(0, column);
+			pressTab(0);
+			assertEquals(group, table.getEditingCell().getTableColumn());
+			table.edit(-1, null);
+
+			// the leaf column gets nested columns, tab moves to the nested column
+			JFXTreeTableColumn<Row, String> nested = new JFXTreeTableColumn<>("nested");
+			nested.setCellValueFactory(param -> param.getValue().getValue().name);
+			nested.setCellFactory(c -> new GenericEditableTreeTableCell<>(new TextFieldEditorBuilder()));
+			group.getColumns().add(nested);
+			table.layout();
+			table.edit(0, column);
+			pressTab(0);
+			TreeTableColumn<Row, ?> editingColumn = table.getEditingCell().getTableColumn();
+			assertEquals(nested, editingColumn);
+		});
+	}
+}
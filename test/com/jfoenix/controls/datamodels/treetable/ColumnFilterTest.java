@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.datamodels.treetable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.datamodels.treetable.ColumnFilter.Operator;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableView;
+
+public class ColumnFilterTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final int id;
+		final String name;
+
+		Row(int id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+
+	private TreeTableColumn<Row, Integer> idColumn;
+	private TreeTableColumn<Row, String> nameColumn;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			idColumn = new TreeTableColumn<>("id");
+			idColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue().id));
+			nameColumn = new TreeTableColumn<>("name");
+			nameColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue().name));
+			// the cell values are read through the table of the columns
+			new TreeTableView<Row>().getColumns().addAll(idColumn, nameColumn);
+		});
+	}
+
+	@Test
+	public void rowsMatchingAllCriteriaAreAccepted(){
+		ColumnFilter<Row> empty = new ColumnFilter<>();
+		ColumnFilter<Row> filter = empty.and(idColumn, Operator.GREATER_THAN, 10).and(nameColumn, Operator.CONTAINS, "OH");
+		assertTrue(filter.test(new TreeItem<>(new Row(11, "John"))));
+		assertFalse(filter.test(new TreeItem<>(new Row(10, "John"))));
+		assertFalse(filter.test(new TreeItem<>(new Row(11, "Jane"))));
+		// the filters are immutable
+		assertEquals(0, empty.getCriteria().size());
+		assertTrue(empty.test(new TreeItem<>(new Row(0, null))));
+		assertEquals(2, filter.getCriteria().size());
+		assertEquals(nameColumn, filter.getCriteria().get(1).getColumn());
+	}
+
+	@Test
+	public void operatorsCompareTheCellValues(){
+		assertTrue(Operator.EQUALS.test("a", "a"));
+		assertTrue(Operator.NOT_EQUALS.test(null, "a"));
+		assertTrue(Operator.STARTS_WITH.test("Name", "na"));
+		assertFalse(Operator.CONTAINS.test(null, "a"));
+		assertTrue(Operator.LESS_THAN.test(1, 2));
+		assertFalse(Operator.GREATER_THAN.test(null, 2));
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.datamodels.treetable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.RecursiveTreeItem;
+import com.jfoenix.controls.datamodels.treetable.ColumnarTable.IntColumn;
+import com.jfoenix.controls.datamodels.treetable.ColumnarTable.Row;
+import com.jfoenix.controls.datamodels.treetable.ColumnarTable.StringColumn;
+
+import javafx.scene.control.TreeItem;
+
+public class ColumnarTableTest {
+
+	private static final int ROW_COUNT = 10_000;
+	// allocated per row by the columnar root: the leaf tree item, its row and the lists growth
+	private static final long MAX_BYTES_PER_ROW = 1024;
+
+	private ColumnarTable table;
+	private IntColumn ids;
+	private StringColumn names;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		table = new ColumnarTable(ROW_COUNT);
+		ids = table.addIntColumn("id");
+		names = table.addStringColumn("name");
+		for (int i = 0; i < ROW_COUNT; i++) {
+			int row = table.newRow();
+			ids.set(row, i);
+			names.set(row, "name " + (i % 10));
+		}
+		table.publishRows();
+	}
+
+	@Test
+	public void rowsAreWrappedInLeafTreeItems(){
+		RecursiveTreeItem<Row> root = table.createRoot();
+		assertEquals(ROW_COUNT, root.getChildren().size());
+		TreeItem<Row> item = root.getChildren().get(42);
+		assertFalse(item instanceof RecursiveTreeItem);
+		assertTrue(item.isLeaf());
+		assertEquals(42, ids.getInt(item.getValue().getIndex()));
+		assertEquals("name 2", names.get(item.getValue().getIndex()));
+		assertEquals(10, names.getDictionarySize());
+
+		// the published rows are added to the root
+		ids.set(table.newRow(), ROW_COUNT);
+		table.publishRows();
+		assertEquals(ROW_COUNT + 1, root.getChildren().size());
+		assertFalse(root.getChildren().get(ROW_COUNT) instanceof RecursiveTreeItem);
+	}
+
+	@Test
+	public void rowsAreFiltered(){
+		RecursiveTreeItem<Row> root = table.createRoot();
+		root.setPredicate(item -> ids.getInt(item.getValue().getIndex()) % 2 == 0);
+		assertEquals(ROW_COUNT / 2, root.getChildren().size());
+		root.setPredicate(item -> true);
+		assertEquals(ROW_COUNT, root.getChildren().size());
+	}
+
+	/*
+	 * bytes allocated by the calling thread
+	 */
+	private static long allocatedBytes(){
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/*
+	 * benchmark: the tree items of the columnar root against RecursiveTreeItems of the same rows
+	 */
+	@Test
+	public void treeItemsFootprint(){
+		long start = allocatedBytes();
+		RecursiveTreeItem<Row> root = table.createRoot();
+		long rowItems = allocatedBytes() - start;
+		start = allocatedBytes();
+		RecursiveTreeItem<Row> recursiveRoot = new RecursiveTreeItem<>(table.getRows(), RecursiveTreeObject::getChildren);
+		long recursiveItems = allocatedBytes() - start;
+		assertEquals(root.getChildren().size(), recursiveRoot.getChildren().size());
+		long rowBytes = rowItems / ROW_COUNT, recursiveBytes = recursiveItems / ROW_COUNT;
+		assertTrue(rowBytes + " bytes per row tree item", rowBytes <= MAX_BYTES_PER_ROW);
+		assertTrue(rowBytes + " bytes per row tree item, " + recursiveBytes + " bytes per RecursiveTreeItem", rowItems < recursiveItems);
+	}
+}
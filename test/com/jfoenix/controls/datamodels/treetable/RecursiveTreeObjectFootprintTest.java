@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.controls.datamodels.treetable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import com.jfoenix.controls.RecursiveTreeItem;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+public class RecursiveTreeObjectFootprintTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+	}
+
+	/*
+	 * object whose children are read from another list by a custom children factory
+	 */
+	static class Link extends RecursiveTreeObject<Link> {
+		final ObservableList<Link> links = FXCollections.observableArrayList();
+	}
+
+	/*
+	 * with compressed references: the object header and the three fields created on demand
+	 */
+	private static final long MAX_ROW_SIZE = 24;
+
+	/*
+	 * the object graph reachable from a row, i.e. the row itself and what it allocated
+	 */
+	private static GraphLayout layout(Row row){
+		return GraphLayout.parseInstance(row);
+	}
+
+	@Test
+	public void dataRowsAllocateNothing(){
+		Row row = new Row();
+		assertTrue(ClassLayout.parseClass(Row.class).instanceSize() <= MAX_ROW_SIZE);
+		assertEquals(1, layout(row).totalCount());
+	}
+
+	@Test
+	public void wrappedDataRowsAllocateNothing(){
+		ObservableList<Row> rows = FXCollections.observableArrayList();
+		for (int i = 0; i < 100; i++) rows.add(new Row());
+		RecursiveTreeItem<Row> root = new RecursiveTreeItem<>(rows, RecursiveTreeObject.childrenFactory());
+		assertEquals(100, root.getChildren().size());
+		for (Row row : rows) {
+			assertFalse(row.hasChildrenList());
+			assertTrue(layout(row).totalSize() <= MAX_ROW_SIZE);
+		}
+		assertTrue(root.getChildren().get(0).isLeaf());
+	}
+
+	@Test
+	public void rowsWithChildrenAreObserved(){
+		Row parent = new Row();
+		parent.getChildren().add(new Row());
+		RecursiveTreeItem<Row> item = new RecursiveTreeItem<>(parent, RecursiveTreeObject::getChildren);
+		assertEquals(1, item.getChildren().size());
+		parent.getChildren().add(new Row());
+		assertEquals(2, item.getChildren().size());
+	}
+
+	@Test
+	public void childrenListsCreatedAfterWrappingAreObserved(){
+		Row row = new Row();
+		RecursiveTreeItem<Row> item = new RecursiveTreeItem<>(row, RecursiveTreeObject.childrenFactory());
+		assertTrue(item.isLeaf());
+		assertFalse(row.hasChildrenList());
+		row.getChildren().add(new Row());
+		assertFalse(item.isLeaf());
+		assertEquals(1, item.getChildren().size());
+		row.getChildren().add(new Row());
+		assertEquals(2, item.getChildren().size());
+	}
+
+	@Test
+	public void customFactoryChildrenAreObserved(){
+		Link link = new Link();
+		RecursiveTreeItem<Link> item = new RecursiveTreeItem<>(link, value -> ((Link) value).links);
+		assertTrue(item.isLeaf());
+		link.links.add(new Link());
+		assertEquals(1, item.getChildren().size());
+		assertFalse(link.hasChildrenList());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void groupPropertiesAreCreatedOnDemand(){
+		Row row = new Row();
+		assertNull(row.getGroupedColumn());
+		assertNull(row.getGroupedValue());
+		row.setGroupedValue("value");
+		assertEquals("value", row.getGroupedValue());
+		assertEquals("value", row.groupedValueProperty().get());
+
+		RecursiveTreeGroup<Row> group = new RecursiveTreeGroup<>();
+		group.setGroupedValue("group");
+		assertEquals("group", group.getGroupedValue());
+		assertTrue(RecursiveTreeObject.isGroupRow(group));
+		assertFalse(RecursiveTreeObject.isGroupRow(row));
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.skins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.JFXListView;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+public class JFXListViewSkinTest {
+
+	private static final int ITEM_COUNT = 10_000;
+
+	private JFXListView<String> listView;
+	private Stage stage;
+	private int layouts;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException {
+		FXTestUtils.startToolkit();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			listView = new JFXListView<String>(){
+				@Override
+				protected void layoutChildren() {
+					layouts++;
+					super.layoutChildren();
+				}
+			};
+			stage = new Stage();
+			stage.setScene(new Scene(listView, 300, 400));
+			stage.show();
+		});
+		settle();
+	}
+
+	@After
+	public void tearDown(){
+		FXTestUtils.runAndWait(() -> stage.hide());
+	}
+
+	/*
+	 * waits for the pulses and the layout requests posted after them
+	 */
+	private static void settle(){
+		for (int i = 0; i < 5; i++) {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				throw new AssertionError(e);
+			}
+			FXTestUtils.runAndWait(() -> {});
+		}
+	}
+
+	@Test
+	public void bulkItemChangesStartNoThreadsAndCoalesceLayouts(){
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long bulkThreads = FXTestUtils.callAndWait(() -> {
+			layouts = 0;
+			long startedThreads = threads.getTotalStartedThreadCount();
+			for (int i = 0; i < ITEM_COUNT; i++) listView.getItems().add("item " + i);
+			return threads.getTotalStartedThreadCount() - startedThreads;
+		});
+		settle();
+		int bulkLayouts = FXTestUtils.callAndWait(() -> layouts);
+		assertEquals(0, bulkThreads);
+		// the pulse layout, and the layout requested once the cells are updated
+		assertTrue(bulkLayouts + " layout passes for " + ITEM_COUNT + " item changes", bulkLayouts <= 4);
+		assertEquals(ITEM_COUNT, (int) FXTestUtils.callAndWait(() -> listView.getItems().size()));
+	}
+
+	/*
+	 * the dirty flag of the skin, set by the item changes until the next layout
+	 */
+	private boolean itemsChanged(){
+		try {
+			Field itemsChanged = JFXListViewSkin.class.getDeclaredField("itemsChanged");
+			itemsChanged.setAccessible(true);
+			return itemsChanged.getBoolean(listView.getSkin());
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	public void replacedItemsListIsObserved(){
+		ObservableList<String> oldItems = FXCollections.observableArrayList();
+		FXTestUtils.runAndWait(() -> {
+			listView.setItems(oldItems);
+			listView.setItems(FXCollections.observableArrayList("a"));
+		});
+		settle();
+		FXTestUtils.runAndWait(() -> {
+			assertFalse(itemsChanged());
+			// the changes of the new list are observed, the old list is no longer observed
+			listView.getItems().add("b");
+			assertTrue(itemsChanged());
+			listView.layout();
+			assertFalse(itemsChanged());
+			oldItems.add("c");
+			assertFalse(itemsChanged());
+		});
+	}
+}
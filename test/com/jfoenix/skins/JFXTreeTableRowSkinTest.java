@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package com.jfoenix.skins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jfoenix.FXTestUtils;
+import com.jfoenix.controls.JFXTreeTableColumn;
+import com.jfoenix.controls.JFXTreeTableRow;
+import com.jfoenix.controls.JFXTreeTableView;
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableCell;
+import javafx.scene.control.TreeTableRow;
+import javafx.stage.Stage;
+
+public class JFXTreeTableRowSkinTest {
+
+	static class Row extends RecursiveTreeObject<Row> {
+		final String name;
+
+		Row(String name) {
+			this.name = name;
+		}
+	}
+
+	private static final int GROUPS = 500;
+	private static final int ROWS_PER_GROUP = 4;
+	// generous bound of a scroll pulse, a few ms are expected even with software rendering
+	private static final double MAX_MILLIS_PER_PULSE = 50;
+	private static String stylesheet;
+
+	private JFXTreeTableView<Row> table;
+	private Stage stage;
+	private int layouts;
+
+	@BeforeClass
+	public static void startToolkit() throws InterruptedException, IOException {
+		FXTestUtils.startToolkit();
+		// the disclosure nodes of the "wide" groups and of the "wide" table are wider
+		File css = File.createTempFile("disclosure", ".css");
+		css.deleteOnExit();
+		Files.write(css.toPath(), Arrays.asList(
+				".tree-table-row-cell.wide .tree-disclosure-node { -fx-padding: 0 30 0 30; }",
+				".wide-table .tree-table-row-cell .tree-disclosure-node { -fx-padding: 0 60 0 60; }"), StandardCharsets.UTF_8);
+		stylesheet = css.toURI().toString();
+	}
+
+	@Before
+	public void setUp(){
+		FXTestUtils.runAndWait(() -> {
+			TreeItem<Row> root = new TreeItem<>(new Row("root"));
+			for (int i = 0; i < GROUPS; i++) {
+				// every 7th group has a wider disclosure node, the first one is not visible initially
+				TreeItem<Row> group = new TreeItem<>(new Row((i % 7 == 6 ? "wide " : "") + "group " + i));
+				group.setExpanded(true);
+				for (int j = 0; j < ROWS_PER_GROUP; j++) group.getChildren().add(new TreeItem<>(new Row("row " + i + "." + j)));
+				root.getChildren().add(group);
+			}
+			JFXTreeTableColumn<Row, String> column = new JFXTreeTableColumn<>("name");
+			column.setPrefWidth(300);
+			column.setCellValueFactory(param -> new SimpleStringProperty(param.getValue().getValue().name));
+			table = new JFXTreeTableView<>(root, null);
+			table.setShowRoot(false);
+			table.getColumns().add(column);
+			table.setRowFactory(t -> new JFXTreeTableRow<Row>(){
+				@Override
+				protected void updateItem(Row item, boolean empty) {
+					super.updateItem(item, empty);
+					getStyleClass().remove("wide");
+					if(!empty && item != null && item.name.startsWith("wide")) getStyleClass().add("wide");
+				}
+
+				@Override
+				protected void layoutChildren() {
+					layouts++;
+					super.layoutChildren();
+				}
+			});
+			stage = new Stage();
+			Scene scene = new Scene(table, 400, 300);
+			scene.getStylesheets().add(stylesheet);
+			stage.setScene(scene);
+			stage.show();
+			pulse();
+		});
+	}
+
+	@After
+	public void tearDown(){
+		FXTestUtils.runAndWait(() -> stage.hide());
+	}
+
+	/*
+	 * css and layout pass, as done by a pulse
+	 */
+	private void pulse(){
+		table.applyCss();
+		table.layout();
+	}
+
+	private double cachedWidth(){
+		Double width = JFXTreeTableRowSkin.disclosureWidthMap.get(table);
+		assertNotNull(width);
+		return width;
+	}
+
+	private double widestVisibleDisclosureNode(){
+		double width = 0;
+		for (Node row : table.lookupAll(".tree-table-row-cell")) {
+			Node disclosureNode = row.lookup(".tree-disclosure-node");
+			if(disclosureNode != null && disclosureNode.isVisible()) width = Math.max(width, disclosureNode.prefWidth(-1));
+		}
+		return width;
+	}
+
+	@Test
+	public void widestDisclosureNodeIsKept(){
+		FXTestUtils.runAndWait(() -> {
+			double narrow = cachedWidth();
+			// the first wide group is scrolled into view after the narrow groups were measured
+			table.scrollTo(6 * (ROWS_PER_GROUP + 1));
+			pulse();
+			pulse();
+			assertTrue(cachedWidth() > narrow);
+			assertEquals(widestVisibleDisclosureNode(), cachedWidth(), 0.5);
+			// scrolling back to narrow groups keeps the widest width
+			table.scrollTo(0);
+			pulse();
+			assertTrue(cachedWidth() > narrow);
+		});
+	}
+
+	@Test
+	public void styleChangeMeasuresTheDisclosureWidthAgain(){
+		FXTestUtils.runAndWait(() -> {
+			double width = cachedWidth();
+			// a style change that doesn't resize the disclosure nodes still measures them again
+			table.getStyleClass().add("plain-table");
+			pulse();
+			assertEquals(width, cachedWidth(), 0.5);
+			table.getStyleClass().add("wide-table");
+			pulse();
+			pulse();
+			assertTrue(cachedWidth() > width);
+			double wideWidth = cachedWidth();
+			table.getStyleClass().remove("wide-table");
+			pulse();
+			pulse();
+			assertTrue(cachedWidth() < wideWidth);
+			assertEquals(widestVisibleDisclosureNode(), cachedWidth(), 0.5);
+		});
+	}
+
+	/*
+	 * benchmark: rows laid out per scroll pulse, it must stay close to the number
+	 * of visible rows rather than grow with the rows above each disclosure row
+	 */
+	@Test
+	public void rowLayoutsPerScrollPulse(){
+		FXTestUtils.runAndWait(() -> {
+			int visibleRows = table.lookupAll(".tree-table-row-cell").size();
+			int pulses = 200;
+			layouts = 0;
+			long start = System.nanoTime();
+			for (int i = 1; i <= pulses; i++) {
+				table.scrollTo(i * 3);
+				pulse();
+			}
+			double millisPerPulse = (System.nanoTime() - start) / 1e6 / pulses;
+			double layoutsPerPulse = (double) layouts / pulses;
+			assertTrue(layoutsPerPulse + " row layouts per pulse for " + visibleRows + " rows", layoutsPerPulse <= 2 * visibleRows);
+			assertTrue(millisPerPulse + " ms per pulse", millisPerPulse <= MAX_MILLIS_PER_PULSE);
+		});
+	}
+
+	/*
+	 * table of 50 columns of 100px, the cells show the index of their column
+	 */
+	private JFXTreeTableView<Row> wideTable(){
+		TreeItem<Row> root = new TreeItem<>(new Row("root"));
+		for (int i = 0; i < 20; i++) root.getChildren().add(new TreeItem<>(new Row("row " + i)));
+		JFXTreeTableView<Row> wideTable = new JFXTreeTableView<>(root, null);
+		wideTable.setShowRoot(false);
+		wideTable.setColumnVirtualization(true);
+		for (int i = 0; i < 50; i++) {
+			String index = Integer.toString(i);
+			JFXTreeTableColumn<Row, String> column = new JFXTreeTableColumn<>(index);
+			column.setPrefWidth(100);
+			column.setCellValueFactory(param -> new SimpleStringProperty(index));
+			wideTable.getColumns().add(column);
+		}
+		stage.setScene(new Scene(wideTable, 400, 300));
+		wideTable.applyCss();
+		wideTable.layout();
+		return wideTable;
+	}
+
+	/*
+	 * the cells of the first row, in the order of their columns
+	 */
+	private static List<TreeTableCell<?, ?>> firstRowCells(JFXTreeTableView<Row> wideTable){
+		for (Node node : wideTable.lookupAll(".tree-table-row-cell")) {
+			TreeTableRow<?> row = (TreeTableRow<?>) node;
+			if(row.getIndex() != 0 || !row.isVisible()) continue;
+			List<TreeTableCell<?, ?>> cells = new ArrayList<>();
+			for (Node child : row.getChildrenUnmodifiable())
+				if(child instanceof TreeTableCell && child.isVisible()) cells.add((TreeTableCell<?, ?>) child);
+			cells.sort((a, b) -> Integer.compare(columnIndex(a), columnIndex(b)));
+			return cells;
+		}
+		throw new AssertionError("the first row is not shown");
+	}
+
+	private static int columnIndex(TreeTableCell<?, ?> cell){
+		return Integer.parseInt(cell.getTableColumn().getText());
+	}
+
+	/*
+	 * checks that the cells are the cells of the columns, placed at the x position of their column
+	 */
+	private static void assertColumns(List<TreeTableCell<?, ?>> cells, int... columns){
+		assertEquals(columns.length, cells.size());
+		double origin = cells.get(0).getLayoutX() - columnIndex(cells.get(0)) * 100;
+		for (int i = 0; i < columns.length; i++) {
+			assertEquals(columns[i], columnIndex(cells.get(i)));
+			assertEquals(origin + columns[i] * 100, cells.get(i).getLayoutX(), 0.5);
+		}
+	}
+
+	@Test
+	public void onlyTheCellsOfTheVisibleColumnsAreCreated(){
+		FXTestUtils.runAndWait(() -> {
+			JFXTreeTableView<Row> wideTable = wideTable();
+			// the viewport and the margin on both sides, 0 to 600px
+			List<TreeTableCell<?, ?>> cells = firstRowCells(wideTable);
+			assertColumns(cells, 0, 1, 2, 3, 4, 5);
+
+			ScrollBar hbar = null;
+			for (Node node : wideTable.lookupAll(".scroll-bar"))
+				if(((ScrollBar) node).getOrientation() == Orientation.HORIZONTAL) hbar = (ScrollBar) node;
+			assertNotNull(hbar);
+			hbar.setValue(2000);
+			wideTable.layout();
+			// 1800 to 2600px, the tree column keeps its cell
+			List<TreeTableCell<?, ?>> scrolledCells = firstRowCells(wideTable);
+			assertColumns(scrolledCells, 0, 18, 19, 20, 21, 22, 23, 24, 25);
+			assertSame(cells.get(0), scrolledCells.get(0));
+			// the cells of the columns that left the window are reused, the columns share the default cell factory
+			for (TreeTableCell<?, ?> cell : cells.subList(1, cells.size()))
+				assertTrue(scrolledCells.contains(cell));
+
+			hbar.setValue(0);
+			wideTable.layout();
+			assertColumns(firstRowCells(wideTable), 0, 1, 2, 3, 4, 5);
+		});
+	}
+}